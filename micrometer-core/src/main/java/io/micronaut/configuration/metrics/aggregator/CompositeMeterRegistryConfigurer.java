@@ -21,19 +21,32 @@ import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.core.instrument.config.MeterFilter;
 import io.micronaut.core.annotation.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Default implementation of {@link MeterRegistryConfigurer} that adds the binders and filters
  * to the micrometer meter registry. This is specifically needed for the {@link io.micronaut.configuration.metrics.management.endpoint.MetricsEndpoint}
+ * <p>
+ * The binders and filters qualified with the name of a registry, such as {@code @Named("prometheus")}, are only
+ * added to the registries of the composite with that name, see {@link #registryNames(MeterRegistry)}.
  *
  * @author Christian Oestreich
  * @since 1.0
  */
 public class CompositeMeterRegistryConfigurer implements MeterRegistryConfigurer<CompositeMeterRegistry> {
 
+    private static final String METER_REGISTRY_SUFFIX = "MeterRegistry";
+
     private final Collection<MeterBinder> binders;
     private final Collection<MeterFilter> filters;
+    private final Map<String, ? extends Collection<MeterBinder>> registryBinders;
+    private final Map<String, ? extends Collection<MeterFilter>> registryFilters;
 
     /**
      * Constructor for the micrometer meter registry configurer.
@@ -43,22 +56,104 @@ public class CompositeMeterRegistryConfigurer implements MeterRegistryConfigurer
      */
     public CompositeMeterRegistryConfigurer(Collection<MeterBinder> binders,
                                             Collection<MeterFilter> filters) {
+        this(binders, filters, Map.of(), Map.of());
+    }
+
+    /**
+     * Constructor for the micrometer meter registry configurer.
+     *
+     * @param binders binder beans
+     * @param filters filter beans
+     * @param registryBinders binder beans by registry name
+     * @param registryFilters filter beans by registry name
+     * @since 5.9.0
+     */
+    public CompositeMeterRegistryConfigurer(Collection<MeterBinder> binders,
+                                            Collection<MeterFilter> filters,
+                                            Map<String, ? extends Collection<MeterBinder>> registryBinders,
+                                            Map<String, ? extends Collection<MeterFilter>> registryFilters) {
         this.binders = binders;
         this.filters = filters;
+        this.registryBinders = registryBinders;
+        this.registryFilters = registryFilters;
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * It is Important that filters are the first thing added so that subsequent operations are
-     * appropriately filtered.
+     * appropriately filtered, including the filters of the registries of the composite.
+     * <p>
+     * The binders and filters qualified with a name that no registry of the composite has are added to the
+     * composite.
      *
      * @param meterRegistry Meter registry to bind metrics to.
      */
     @Override
     public void configure(@NonNull CompositeMeterRegistry meterRegistry) {
+        configure(meterRegistry, meterRegistry.getRegistries());
+    }
+
+    /**
+     * Adds the binders and filters to a registry used without a composite, including the binders and filters
+     * qualified with its name.
+     *
+     * @param meterRegistry Meter registry to bind metrics to.
+     * @since 5.9.0
+     */
+    public void configureRegistry(@NonNull MeterRegistry meterRegistry) {
+        configure(meterRegistry, List.of(meterRegistry));
+    }
+
+    private void configure(MeterRegistry meterRegistry, Collection<MeterRegistry> registries) {
+        Set<String> names = new HashSet<>();
+        for (MeterRegistry registry : registries) {
+            names.addAll(registryNames(registry));
+        }
         addFilters(meterRegistry);
+        registryFilters.forEach((name, namedFilters) -> {
+            if (names.contains(name)) {
+                for (MeterRegistry registry : registries) {
+                    if (registryNames(registry).contains(name)) {
+                        namedFilters.forEach(registry.config()::meterFilter);
+                    }
+                }
+            } else {
+                namedFilters.forEach(meterRegistry.config()::meterFilter);
+            }
+        });
         addBinders(meterRegistry);
+        registryBinders.forEach((name, namedBinders) -> {
+            if (names.contains(name)) {
+                for (MeterRegistry registry : registries) {
+                    if (registryNames(registry).contains(name)) {
+                        namedBinders.forEach(binder -> binder.bindTo(registry));
+                    }
+                }
+            } else {
+                namedBinders.forEach(binder -> binder.bindTo(meterRegistry));
+            }
+        });
+    }
+
+    /**
+     * The names of a registry are the lower case simple names of its class and super classes, without the
+     * {@code MeterRegistry} suffix, e.g. {@code prometheus} for the {@code PrometheusMeterRegistry} or
+     * {@code cloudwatch} for the {@code CloudWatchMeterRegistry}.
+     *
+     * @param meterRegistry The registry
+     * @return The names of the registry
+     * @since 5.9.0
+     */
+    public static List<String> registryNames(@NonNull MeterRegistry meterRegistry) {
+        List<String> names = new ArrayList<>(2);
+        for (Class<?> type = meterRegistry.getClass(); type != MeterRegistry.class && type != null; type = type.getSuperclass()) {
+            String name = type.getSimpleName();
+            if (name.endsWith(METER_REGISTRY_SUFFIX) && name.length() > METER_REGISTRY_SUFFIX.length()) {
+                names.add(name.substring(0, name.length() - METER_REGISTRY_SUFFIX.length()).toLowerCase(Locale.ENGLISH));
+            }
+        }
+        return names;
     }
 
     @Override
@@ -71,7 +166,7 @@ public class CompositeMeterRegistryConfigurer implements MeterRegistryConfigurer
      *
      * @param meterRegistry the registry
      */
-    private void addFilters(@NonNull CompositeMeterRegistry meterRegistry) {
+    private void addFilters(@NonNull MeterRegistry meterRegistry) {
         if (filters != null && !filters.isEmpty()) {
             MeterRegistry.Config config = meterRegistry.config();
             for (MeterFilter filter : filters) {
@@ -89,7 +184,7 @@ public class CompositeMeterRegistryConfigurer implements MeterRegistryConfigurer
      *
      * @param meterRegistry the meter registry
      */
-    private void addBinders(@NonNull CompositeMeterRegistry meterRegistry) {
+    private void addBinders(@NonNull MeterRegistry meterRegistry) {
         if (binders != null && !binders.isEmpty()) {
             for (MeterBinder binder : binders) {
                 binder.bindTo(meterRegistry);
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.annotation;
+
+import io.micronaut.aop.Around;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Meters the reactive sequences returned by the annotated methods with Reactor's {@code Micrometer.metrics}
+ * listener: subscriptions, requested amounts, the delay between {@code onNext} signals and the sequence duration.
+ * Requires {@code io.projectreactor:reactor-core-micrometer} on the classpath.
+ *
+ * @since 5.9.0
+ */
+@Around
+@Documented
+@Retention(RUNTIME)
+@Target({METHOD, TYPE})
+public @interface MeteredPublisher {
+
+    /**
+     * @return The sequence name, used as the prefix of the meter names. Defaults to Reactor's {@code reactor}.
+     */
+    String value() default "";
+
+    /**
+     * @return The additional tags, as key value pairs
+     */
+    String[] extraTags() default {};
+}
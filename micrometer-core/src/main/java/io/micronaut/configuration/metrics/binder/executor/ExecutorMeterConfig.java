@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.executor;
+
+import io.micronaut.context.annotation.EachProperty;
+import io.micronaut.context.annotation.Parameter;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+
+/**
+ * Metrics configuration of a named executor, ex: {@code micronaut.metrics.binders.executor.executors.io}.
+ * The executors are configured under their own prefix so their names never clash with the properties of the
+ * binder, like {@code micronaut.metrics.binders.executor.enabled}.
+ *
+ * @since 5.9.0
+ */
+@EachProperty(ExecutorMeterConfig.PREFIX)
+public class ExecutorMeterConfig {
+
+    /**
+     * The prefix of the executor configurations.
+     */
+    public static final String PREFIX = MICRONAUT_METRICS_BINDERS + ".executor.executors";
+
+    private final String name;
+    private boolean enabled = true;
+    private Map<String, String> tags = Collections.emptyMap();
+    private Double[] percentiles = new Double[]{};
+    private Boolean histogram = false;
+    private Double min = null;
+    private Double max = null;
+    private Double[] slos = new Double[]{};
+    private double sampleRate = 1;
+
+    /**
+     * @param name The executor name
+     */
+    public ExecutorMeterConfig(@Parameter String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The executor name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Default: true.
+     * @return If the executor is instrumented.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Default: true.
+     * @param enabled If the executor is instrumented.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Default is empty.
+     * @return The tags added to the executor meters.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Default is empty.
+     * @param tags The tags added to the executor meters.
+     */
+    public void setTags(Map<String, String> tags) {
+        this.tags = tags;
+    }
+
+    /**
+     * Default is empty.
+     * @return The percentiles of the task timers. Specify in CSV format, ex: "0.95,0.99".
+     */
+    public Double[] getPercentiles() {
+        return percentiles;
+    }
+
+    /**
+     * Default is empty.
+     * @param percentiles The percentiles of the task timers. Specify in CSV format, ex: "0.95,0.99".
+     */
+    public void setPercentiles(Double[] percentiles) {
+        this.percentiles = percentiles;
+    }
+
+    /**
+     * Default: false.
+     * @return If a histogram should be published for the task timers.
+     */
+    public Boolean getHistogram() {
+        return histogram;
+    }
+
+    /**
+     * Default: false.
+     * @param histogram If a histogram should be published for the task timers.
+     */
+    public void setHistogram(Boolean histogram) {
+        this.histogram = histogram;
+    }
+
+    /**
+     * Default: Micrometer default value (0.001).
+     * @return The minimum time (in s) value expected.
+     */
+    public Double getMin() {
+        return min;
+    }
+
+    /**
+     * Default: Micrometer default value (0.001).
+     * @param min The minimum time (in s) value expected.
+     */
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    /**
+     * Default: Micrometer default value (30).
+     * @return The maximum time (in s) value expected.
+     */
+    public Double getMax() {
+        return max;
+    }
+
+    /**
+     * Default: Micrometer default value (30).
+     * @param max The maximum time (in s) value expected.
+     */
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    /**
+     * Default is empty.
+     * @return The user-defined service levels objectives (in s) to create. Specify in CSV format, ex: "0.1,0.4".
+     */
+    public Double[] getSlos() {
+        return slos;
+    }
+
+    /**
+     * Default is empty.
+     * @param slos The user-defined service levels objectives (in s) to create. Specify in CSV format, ex: "0.1,0.4".
+     */
+    public void setSlos(Double[] slos) {
+        this.slos = slos;
+    }
+
+    /**
+     * Default: 1, all the tasks are timed.
+     * @return The fraction of the tasks, between 0 and 1, that are timed.
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Default: 1, all the tasks are timed.
+     * @param sampleRate The fraction of the tasks, between 0 and 1, that are timed.
+     */
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
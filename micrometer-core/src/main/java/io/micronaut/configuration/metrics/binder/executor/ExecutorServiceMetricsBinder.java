@@ -18,23 +18,28 @@ package io.micronaut.configuration.metrics.binder.executor;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
-import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.BeanLocator;
 import io.micronaut.context.BeanProvider;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.event.BeanCreatedEvent;
 import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.inject.BeanIdentifier;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import io.micronaut.scheduling.instrument.InstrumentedExecutorService;
 import io.micronaut.scheduling.instrument.InstrumentedScheduledExecutorService;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
 import static io.micronaut.core.util.StringUtils.FALSE;
@@ -53,12 +58,26 @@ public class ExecutorServiceMetricsBinder implements BeanCreatedEventListener<Ex
     private static final String THREAD_PER_TASK_EXECUTOR = "java.util.concurrent.ThreadPerTaskExecutor";
 
     private final BeanProvider<MeterRegistry> meterRegistryProvider;
+    private final BeanLocator beanLocator;
 
     /**
      * @param meterRegistryProvider The meter registry provider
+     * @deprecated Use {@link #ExecutorServiceMetricsBinder(BeanProvider, BeanLocator)} instead.
      */
+    @Deprecated(since = "5.9.0", forRemoval = true)
     public ExecutorServiceMetricsBinder(BeanProvider<MeterRegistry> meterRegistryProvider) {
+        this(meterRegistryProvider, null);
+    }
+
+    /**
+     * @param meterRegistryProvider The meter registry provider
+     * @param beanLocator The bean locator used to find the executors meter configuration
+     * @since 5.9.0
+     */
+    @Inject
+    public ExecutorServiceMetricsBinder(BeanProvider<MeterRegistry> meterRegistryProvider, @Nullable BeanLocator beanLocator) {
         this.meterRegistryProvider = meterRegistryProvider;
+        this.beanLocator = beanLocator;
     }
 
     @Override
@@ -73,22 +92,46 @@ public class ExecutorServiceMetricsBinder implements BeanCreatedEventListener<Ex
         if (unwrapped.getClass().getName().startsWith("io.netty")) {
             return unwrapped;
         }
-        // ExecutorServiceMetrics does not provide metrics for virtual threads
-        if (unwrapped.getClass().getName().equals(THREAD_PER_TASK_EXECUTOR)) {
+
+        BeanIdentifier beanIdentifier = event.getBeanIdentifier();
+        ExecutorMeterConfig config = findConfig(beanIdentifier.getName());
+        if (!config.isEnabled()) {
             return executorService;
         }
-
         MeterRegistry meterRegistry = meterRegistryProvider.get();
-        BeanIdentifier beanIdentifier = event.getBeanIdentifier();
 
-        List<Tag> tags = Collections.emptyList(); // allow tags?
+        List<Tag> tags = new ArrayList<>(config.getTags().size());
+        config.getTags().forEach((key, value) -> tags.add(Tag.of(key, value)));
+        Tags executorTags = Tags.concat(tags, "name", beanIdentifier.getName());
+        ExecutorTaskTimers timers = new ExecutorTaskTimers(meterRegistry, executorTags, config);
+
+        // ExecutorServiceMetrics does not provide metrics for virtual threads
+        if (unwrapped.getClass().getName().equals(THREAD_PER_TASK_EXECUTOR)) {
+            ThreadPerTaskExecutorMetrics metrics = new ThreadPerTaskExecutorMetrics(meterRegistry, executorTags, timers);
+            return new InstrumentedExecutorService() {
+                @Override
+                public ExecutorService getTarget() {
+                    return executorService;
+                }
+
+                @Override
+                public <T> Callable<T> instrument(Callable<T> task) {
+                    return metrics.instrument(task);
+                }
+
+                @Override
+                public Runnable instrument(Runnable command) {
+                    return metrics.instrument(command);
+                }
+            };
+        }
 
         // bind the service metrics
         new ExecutorServiceMetrics(unwrapped, beanIdentifier.getName(), tags).bindTo(meterRegistry);
 
         // allow timing
-        final Timer timer = meterRegistry.timer("executor", Tags.concat(tags , "name", beanIdentifier.getName()));
         if (executorService instanceof ScheduledExecutorService) {
+            ScheduledTaskTimers scheduledTimers = new ScheduledTaskTimers(meterRegistry, executorTags, config, timers);
             return new InstrumentedScheduledExecutorService() {
 
                 @Override
@@ -98,12 +141,34 @@ public class ExecutorServiceMetricsBinder implements BeanCreatedEventListener<Ex
 
                 @Override
                 public <T> Callable<T> instrument(Callable<T> task) {
-                    return timer.wrap(task);
+                    return timers.timeQueueAndExecution(task);
                 }
 
                 @Override
                 public Runnable instrument(Runnable command) {
-                    return timer.wrap(command);
+                    return timers.timeQueueAndExecution(command);
+                }
+
+                // delayed and periodic tasks are not queued when submitted, only their execution is timed
+
+                @Override
+                public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+                    return getTarget().schedule(scheduledTimers.delayed(command, delay, unit), delay, unit);
+                }
+
+                @Override
+                public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+                    return getTarget().schedule(scheduledTimers.delayed(callable, delay, unit), delay, unit);
+                }
+
+                @Override
+                public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+                    return getTarget().scheduleAtFixedRate(scheduledTimers.fixedRate(command, initialDelay, period, unit), initialDelay, period, unit);
+                }
+
+                @Override
+                public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+                    return getTarget().scheduleWithFixedDelay(scheduledTimers.fixedDelay(command, initialDelay, delay, unit), initialDelay, delay, unit);
                 }
             };
         } else {
@@ -115,14 +180,22 @@ public class ExecutorServiceMetricsBinder implements BeanCreatedEventListener<Ex
 
                 @Override
                 public <T> Callable<T> instrument(Callable<T> task) {
-                    return timer.wrap(task);
+                    return timers.timeQueueAndExecution(task);
                 }
 
                 @Override
                 public Runnable instrument(Runnable command) {
-                    return timer.wrap(command);
+                    return timers.timeQueueAndExecution(command);
                 }
             };
         }
     }
+
+    private ExecutorMeterConfig findConfig(String name) {
+        if (beanLocator == null) {
+            return new ExecutorMeterConfig(name);
+        }
+        return beanLocator.findBean(ExecutorMeterConfig.class, Qualifiers.byName(name))
+                .orElseGet(() -> new ExecutorMeterConfig(name));
+    }
 }
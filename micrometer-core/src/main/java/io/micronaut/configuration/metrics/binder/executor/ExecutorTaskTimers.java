@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.executor;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Internal;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the tasks of an executor: the time spent queued, from submission to the start of the execution,
+ * and the execution itself. Only a fraction of the tasks is timed when sampling is configured.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class ExecutorTaskTimers {
+
+    private static final double SECONDS_TO_NANOS = 1_000_000_000d;
+
+    private final Clock clock;
+    private final Timer timer;
+    private final Timer idleTimer;
+    private final double sampleRate;
+
+    /**
+     * @param meterRegistry The meter registry
+     * @param tags The executor tags
+     * @param config The executor meter configuration
+     */
+    ExecutorTaskTimers(MeterRegistry meterRegistry, Tags tags, ExecutorMeterConfig config) {
+        clock = meterRegistry.config().clock();
+        sampleRate = config.getSampleRate();
+        timer = distribution(Timer.builder("executor"), config)
+                .tags(tags)
+                .register(meterRegistry);
+        idleTimer = distribution(Timer.builder("executor.idle"), config)
+                .description("The time tasks spent queued before being executed")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The timer of the task executions
+     */
+    Timer getTimer() {
+        return timer;
+    }
+
+    /**
+     * Times the queue wait and the execution of a task submitted now.
+     *
+     * @param task The task
+     * @param <T> The result type
+     * @return The instrumented task
+     */
+    <T> Callable<T> timeQueueAndExecution(Callable<T> task) {
+        if (!sampled()) {
+            return task;
+        }
+        long submitted = clock.monotonicTime();
+        Callable<T> timed = timer.wrap(task);
+        return () -> {
+            idleTimer.record(clock.monotonicTime() - submitted, TimeUnit.NANOSECONDS);
+            return timed.call();
+        };
+    }
+
+    /**
+     * Times the queue wait and the execution of a task submitted now.
+     *
+     * @param task The task
+     * @return The instrumented task
+     */
+    Runnable timeQueueAndExecution(Runnable task) {
+        if (!sampled()) {
+            return task;
+        }
+        long submitted = clock.monotonicTime();
+        Runnable timed = timer.wrap(task);
+        return () -> {
+            idleTimer.record(clock.monotonicTime() - submitted, TimeUnit.NANOSECONDS);
+            timed.run();
+        };
+    }
+
+    /**
+     * @return Whether the next task should be timed
+     */
+    boolean sampled() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Applies the distribution statistics of the configuration to a timer.
+     *
+     * @param builder The timer builder
+     * @param config The executor meter configuration
+     * @return The timer builder
+     */
+    static Timer.Builder distribution(Timer.Builder builder, ExecutorMeterConfig config) {
+        builder.publishPercentiles(Arrays.stream(config.getPercentiles()).mapToDouble(Double::doubleValue).toArray())
+                .publishPercentileHistogram(config.getHistogram())
+                .serviceLevelObjectives(Arrays.stream(config.getSlos()).map(ExecutorTaskTimers::toDuration).toArray(Duration[]::new));
+        if (config.getMin() != null) {
+            builder.minimumExpectedValue(toDuration(config.getMin()));
+        }
+        if (config.getMax() != null) {
+            builder.maximumExpectedValue(toDuration(config.getMax()));
+        }
+        return builder;
+    }
+
+    private static Duration toDuration(Double seconds) {
+        return Duration.ofNanos((long) (seconds * SECONDS_TO_NANOS));
+    }
+}
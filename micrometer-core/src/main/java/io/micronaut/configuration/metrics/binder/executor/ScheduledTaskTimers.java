@@ -0,0 +1,184 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.executor;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the delayed and periodic tasks of a scheduled executor: the lag between the intended and the actual
+ * start of each execution, and the execution itself. Fixed rate executions lasting longer than the period
+ * are counted as overruns. Sampling only applies to delayed tasks, periodic tasks are always timed.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class ScheduledTaskTimers {
+
+    private static final String SCHEDULE = "schedule";
+
+    private final Clock clock;
+    private final ExecutorTaskTimers timers;
+    private final Timer timer;
+    private final Timer delayLag;
+    private final Timer fixedRateLag;
+    private final Timer fixedDelayLag;
+    private final Counter overruns;
+
+    /**
+     * @param meterRegistry The meter registry
+     * @param tags The executor tags
+     * @param config The executor meter configuration
+     * @param timers The executor task timers
+     */
+    ScheduledTaskTimers(MeterRegistry meterRegistry, Tags tags, ExecutorMeterConfig config, ExecutorTaskTimers timers) {
+        this.timers = timers;
+        timer = timers.getTimer();
+        clock = meterRegistry.config().clock();
+        delayLag = lagTimer(meterRegistry, tags, config, "delay");
+        fixedRateLag = lagTimer(meterRegistry, tags, config, "fixed-rate");
+        fixedDelayLag = lagTimer(meterRegistry, tags, config, "fixed-delay");
+        overruns = Counter.builder("executor.scheduled.overrun")
+                .description("The number of fixed rate executions that lasted longer than their period")
+                .baseUnit("tasks")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param task The task
+     * @param delay The delay
+     * @param unit The delay unit
+     * @return The instrumented task
+     */
+    Runnable delayed(Runnable task, long delay, TimeUnit unit) {
+        if (!timers.sampled()) {
+            return task;
+        }
+        long intendedStart = clock.monotonicTime() + unit.toNanos(delay);
+        return () -> {
+            long start = clock.monotonicTime();
+            recordLag(delayLag, start, intendedStart);
+            try {
+                task.run();
+            } finally {
+                timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * @param task The task
+     * @param delay The delay
+     * @param unit The delay unit
+     * @param <V> The result type
+     * @return The instrumented task
+     */
+    <V> Callable<V> delayed(Callable<V> task, long delay, TimeUnit unit) {
+        if (!timers.sampled()) {
+            return task;
+        }
+        long intendedStart = clock.monotonicTime() + unit.toNanos(delay);
+        return () -> {
+            long start = clock.monotonicTime();
+            recordLag(delayLag, start, intendedStart);
+            try {
+                return task.call();
+            } finally {
+                timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * @param task The task
+     * @param initialDelay The initial delay
+     * @param period The period
+     * @param unit The delays unit
+     * @return The instrumented task
+     */
+    Runnable fixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        long firstStart = clock.monotonicTime() + unit.toNanos(initialDelay);
+        long periodNanos = unit.toNanos(period);
+        return new Runnable() {
+            // executions of a periodic task never overlap
+            private long executions;
+
+            @Override
+            public void run() {
+                long start = clock.monotonicTime();
+                recordLag(fixedRateLag, start, firstStart + executions++ * periodNanos);
+                try {
+                    task.run();
+                } finally {
+                    long duration = clock.monotonicTime() - start;
+                    timer.record(duration, TimeUnit.NANOSECONDS);
+                    if (duration > periodNanos) {
+                        overruns.increment();
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * @param task The task
+     * @param initialDelay The initial delay
+     * @param delay The delay between the end of an execution and the start of the next one
+     * @param unit The delays unit
+     * @return The instrumented task
+     */
+    Runnable fixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        long delayNanos = unit.toNanos(delay);
+        long firstStart = clock.monotonicTime() + unit.toNanos(initialDelay);
+        return new Runnable() {
+            // executions of a periodic task never overlap
+            private long intendedStart = firstStart;
+
+            @Override
+            public void run() {
+                long start = clock.monotonicTime();
+                recordLag(fixedDelayLag, start, intendedStart);
+                try {
+                    task.run();
+                } finally {
+                    long end = clock.monotonicTime();
+                    timer.record(end - start, TimeUnit.NANOSECONDS);
+                    intendedStart = end + delayNanos;
+                }
+            }
+        };
+    }
+
+    private static Timer lagTimer(MeterRegistry meterRegistry, Tags tags, ExecutorMeterConfig config, String schedule) {
+        return ExecutorTaskTimers.distribution(Timer.builder("executor.scheduled.lag"), config)
+                .description("The time between the intended and the actual start of scheduled tasks")
+                .tags(tags)
+                .tag(SCHEDULE, schedule)
+                .register(meterRegistry);
+    }
+
+    private static void recordLag(Timer lag, long start, long intendedStart) {
+        lag.record(Math.max(0, start - intendedStart), TimeUnit.NANOSECONDS);
+    }
+}
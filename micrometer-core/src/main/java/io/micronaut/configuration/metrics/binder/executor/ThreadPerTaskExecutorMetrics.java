@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micronaut.core.annotation.Internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics for executors starting a new thread per task, such as the virtual thread executors, which are not
+ * supported by Micrometer's {@link io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics}.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class ThreadPerTaskExecutorMetrics {
+
+    private final Counter submitted;
+    private final Counter completed;
+    private final LongAdder active = new LongAdder();
+    private final ExecutorTaskTimers timers;
+
+    /**
+     * @param meterRegistry The meter registry
+     * @param tags The executor tags
+     * @param timers The executor task timers
+     */
+    ThreadPerTaskExecutorMetrics(MeterRegistry meterRegistry, Tags tags, ExecutorTaskTimers timers) {
+        this.timers = timers;
+        submitted = Counter.builder("executor.submitted")
+                .description("The number of tasks submitted to the executor")
+                .baseUnit("tasks")
+                .tags(tags)
+                .register(meterRegistry);
+        completed = Counter.builder("executor.completed")
+                .description("The approximate total number of tasks that have completed execution")
+                .baseUnit("tasks")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("executor.active", active, LongAdder::doubleValue)
+                .description("The approximate number of threads that are actively executing tasks")
+                .baseUnit("threads")
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param task The task
+     * @param <T> The result type
+     * @return The instrumented task
+     */
+    <T> Callable<T> instrument(Callable<T> task) {
+        submitted.increment();
+        return timers.timeQueueAndExecution(() -> {
+            active.increment();
+            try {
+                return task.call();
+            } finally {
+                active.decrement();
+                completed.increment();
+            }
+        });
+    }
+
+    /**
+     * @param task The task
+     * @return The instrumented task
+     */
+    Runnable instrument(Runnable task) {
+        submitted.increment();
+        return timers.timeQueueAndExecution(() -> {
+            active.increment();
+            try {
+                task.run();
+            } finally {
+                active.decrement();
+                completed.increment();
+            }
+        });
+    }
+}
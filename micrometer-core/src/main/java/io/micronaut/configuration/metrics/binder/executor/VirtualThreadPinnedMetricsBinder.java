@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.executor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+import static io.micronaut.core.util.StringUtils.FALSE;
+
+/**
+ * Times the pinning of virtual threads to their carrier thread, as reported by the {@code jdk.VirtualThreadPinned}
+ * JFR event. Pinning happens when a virtual thread blocks inside a {@code synchronized} block or a native frame.
+ *
+ * @since 5.9.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".virtual-threads.enabled", defaultValue = FALSE, notEquals = FALSE)
+@Requires(sdk = Requires.Sdk.JAVA, version = "21")
+public class VirtualThreadPinnedMetricsBinder implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinnedMetricsBinder.class);
+    private static final String VIRTUAL_THREAD_PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private RecordingStream recordingStream;
+
+    @Override
+    public synchronized void bindTo(@NonNull MeterRegistry registry) {
+        if (recordingStream != null) {
+            return;
+        }
+        Timer pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("The duration while the virtual thread was pinned without releasing its platform carrier thread")
+                .register(registry);
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(VIRTUAL_THREAD_PINNED_EVENT).withThreshold(Duration.ofMillis(20));
+            stream.onEvent(VIRTUAL_THREAD_PINNED_EVENT, event -> pinned.record(event.getDuration()));
+            stream.startAsync();
+            recordingStream = stream;
+        } catch (RuntimeException e) {
+            // JFR is not available, e.g. in a native image
+            LOG.warn("Virtual thread pinning cannot be recorded: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording the pinning events.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.micronaut.configuration.metrics.binder.netty;
 
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
@@ -26,6 +27,7 @@ import io.micronaut.context.annotation.Value;
 import io.micronaut.core.annotation.Internal;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
 import io.netty.buffer.PoolArenaMetric;
 import io.netty.buffer.PoolChunkListMetric;
 import io.netty.buffer.PoolChunkMetric;
@@ -36,9 +38,12 @@ import io.netty.buffer.UnpooledByteBufAllocator;
 import jakarta.annotation.PostConstruct;
 
 import java.util.EnumSet;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
+import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.DEFAULT_ALLOCATOR;
 import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.POOLED_ALLOCATOR;
 import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.POOLED_ARENAS;
 import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.POOLED_ARENAS_CHUNKLISTS;
@@ -56,8 +61,10 @@ import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHUNK
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHUNKLIST;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DEALLOCATION;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DEFAULT;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DIRECT;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ELEMENT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.FRAGMENTATION;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HEAP;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HUGE;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.LOCAL;
@@ -67,7 +74,6 @@ import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MIN;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NORMAL;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NUMBER;
-import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.PAGE;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.POOLED;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SIZE;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SMALL;
@@ -81,7 +87,8 @@ import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory
 import static io.micronaut.core.util.StringUtils.FALSE;
 
 /**
- * Metrics for Netty default ByteBufAllocators.
+ * Metrics for Netty default ByteBufAllocators. Arena sub-pages and chunks are not metered one by one:
+ * they are aggregated when the meters are read, so that chunks allocated after startup are accounted for.
  *
  * @author Christophe Roudet
  * @since 2.0
@@ -99,6 +106,7 @@ final class ByteBufAllocatorMetricsBinder {
     enum ByteBufAllocatorMetricKind {
         POOLED_ALLOCATOR,
         UNPOOLED_ALLOCATOR,
+        DEFAULT_ALLOCATOR,
         POOLED_ARENAS,
         POOLED_ARENAS_SUBPAGES,
         POOLED_ARENAS_CHUNKLISTS,
@@ -183,6 +191,22 @@ final class ByteBufAllocatorMetricsBinder {
             Gauge.builder(dot(NETTY, ALLOC, MEMORY, USED), unpooledMetric, ByteBufAllocatorMetric::usedDirectMemory)
                     .description("The number of the bytes of the directy memory.").tags(unpooled.and(MEMORY, DIRECT)).register(meterRegistry);
         }
+
+        if (kinds.contains(DEFAULT_ALLOCATOR)) {
+            // the allocator configured for Micronaut when it is neither of the above, e.g. the adaptive allocator
+            ByteBufAllocator defaultAllocator = ByteBufAllocator.DEFAULT;
+            if (defaultAllocator != PooledByteBufAllocator.DEFAULT
+                    && defaultAllocator != UnpooledByteBufAllocator.DEFAULT
+                    && defaultAllocator instanceof ByteBufAllocatorMetricProvider metricProvider) {
+                ByteBufAllocatorMetric defaultMetric = metricProvider.metric();
+                Tags defaultTags = Tags.of(ALLOC, DEFAULT);
+
+                Gauge.builder(dot(NETTY, ALLOC, MEMORY, USED), defaultMetric, ByteBufAllocatorMetric::usedHeapMemory)
+                        .description("The number of the bytes of the heap memory.").tags(defaultTags.and(MEMORY, HEAP)).register(meterRegistry);
+                Gauge.builder(dot(NETTY, ALLOC, MEMORY, USED), defaultMetric, ByteBufAllocatorMetric::usedDirectMemory)
+                        .description("The number of the bytes of the directy memory.").tags(defaultTags.and(MEMORY, DIRECT)).register(meterRegistry);
+            }
+        }
     }
 
     private void meterPoolArena(Tags tags, PoolArenaMetric pam) {
@@ -257,46 +281,45 @@ final class ByteBufAllocatorMetricsBinder {
                 .tags(tags)
                 .register(meterRegistry);
 
-        if (kinds.contains(POOLED_ARENAS_SUBPAGES)) {
-            for (int i = 0; i < pam.smallSubpages().size(); i++) {
-                Tags tinySubpage = tags.and(SUBPAGE, SMALL)
-                        .and(dot(SUBPAGE, NUMBER), Integer.toString(i));
-
-                meterSubpage(tinySubpage, pam.smallSubpages().get(i));
-            }
+        boolean subpages = kinds.contains(POOLED_ARENAS_SUBPAGES);
+        boolean chunkLists = kinds.contains(POOLED_ARENAS_CHUNKLISTS);
+        boolean chunks = kinds.contains(POOLED_ARENAS_CHUNKS);
+        if (!subpages && !chunkLists && !chunks) {
+            return;
+        }
+        PoolArenaStatistics statistics = new PoolArenaStatistics(pam, meterRegistry.config().clock(), subpages, chunks);
+
+        if (subpages) {
+            Tags subpageTags = tags.and(SUBPAGE, SMALL);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, SUBPAGE, ELEMENT, MAX), statistics, s -> s.subpageMaxElements,
+                    "Return the number of maximal elements that can be allocated out of the small sub-pages of the arena.", subpageTags);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, SUBPAGE, AVAILABLE, COUNT), statistics, s -> s.subpageAvailableElements,
+                    "Return the number of available elements to be allocated out of the small sub-pages of the arena.", subpageTags);
         }
 
-        if (kinds.contains(POOLED_ARENAS_CHUNKLISTS)) {
-            for (int i = 0; i < pam.chunkLists().size(); i++) {
+        if (chunkLists) {
+            List<PoolChunkListMetric> pclms = pam.chunkLists();
+            for (int i = 0; i < pclms.size(); i++) {
                 Tags chunkList = tags.and(dot(CHUNKLIST, NUMBER), Integer.toString(i));
 
-                meterChunkList(chunkList, pam.chunkLists().get(i));
+                meterChunkList(chunkList, pclms.get(i), statistics, i);
             }
         }
-    }
-
-    private void meterSubpage(Tags tags, PoolSubpageMetric psm) {
-        MeterRegistry meterRegistry = meterRegistryProvider.get();
 
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, SUBPAGE, ELEMENT, MAX), psm, PoolSubpageMetric::maxNumElements)
-                .description("Return the number of maximal elements that can be allocated out of the sub-page.")
-                .tags(tags)
-                .register(meterRegistry);
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, SUBPAGE, AVAILABLE, COUNT), psm, PoolSubpageMetric::numAvailable)
-                .description("Return the number of available elements to be allocated.")
-                .tags(tags)
-                .register(meterRegistry);
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, SUBPAGE, ELEMENT, SIZE), psm, PoolSubpageMetric::elementSize)
-                .description("Return the size (in bytes) of the elements that will be allocated.")
-                .tags(tags)
-                .register(meterRegistry);
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, SUBPAGE, PAGE, SIZE), psm, PoolSubpageMetric::pageSize)
-                .description("Return the size (in bytes) of this page.")
-                .tags(tags)
-                .register(meterRegistry);
+        if (chunks) {
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNK, COUNT), statistics, s -> s.chunkCount,
+                    "Return the number of chunks of the arena.", tags);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNK, SIZE), statistics, s -> s.chunkBytes,
+                    "Return the size in bytes of all the chunks of the arena.", tags);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNK, SIZE, AVAILABLE), statistics, s -> s.chunkFreeBytes,
+                    "Return the number of free bytes in the chunks of the arena.", tags);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNK, FRAGMENTATION), statistics,
+                    s -> s.chunkBytes == 0 ? 0 : (double) s.chunkFreeBytes / s.chunkBytes,
+                    "Return the ratio of free bytes to the size of the chunks of the arena.", tags);
+        }
     }
 
-    private void meterChunkList(Tags tags, PoolChunkListMetric pclm) {
+    private void meterChunkList(Tags tags, PoolChunkListMetric pclm, PoolArenaStatistics statistics, int index) {
         MeterRegistry meterRegistry = meterRegistryProvider.get();
 
         Gauge.builder(dot(NETTY, ALLOC, ARENA, CHUNKLIST, USAGE, MIN), pclm, PoolChunkListMetric::minUsage)
@@ -308,27 +331,87 @@ final class ByteBufAllocatorMetricsBinder {
                 .tags(tags)
                 .register(meterRegistry);
         if (kinds.contains(POOLED_ARENAS_CHUNKS)) {
-            int index = 0;
-            for (Iterator<PoolChunkMetric> i = pclm.iterator(); i.hasNext(); ++index) {
-                meterChunk(tags.and(dot(CHUNK, NUMBER), Integer.toString(index)), i.next());
-            }
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNKLIST, CHUNK, COUNT), statistics, s -> s.chunkListCounts[index],
+                    "Return the number of chunks in the chunk list.", tags);
+            meterStatistic(dot(NETTY, ALLOC, ARENA, CHUNKLIST, CHUNK, SIZE, AVAILABLE), statistics, s -> s.chunkListFreeBytes[index],
+                    "Return the number of free bytes in the chunks of the chunk list.", tags);
         }
     }
 
-    private void meterChunk(Tags tags, PoolChunkMetric pcm) {
-        MeterRegistry meterRegistry = meterRegistryProvider.get();
-
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, CHUNK, SIZE), pcm, PoolChunkMetric::chunkSize)
-                .description("Return the size of the chunk in bytes, this is the maximum of bytes that can be served out of the chunk.")
+    private void meterStatistic(String name, PoolArenaStatistics statistics, ToDoubleFunction<PoolArenaStatistics.Snapshot> f,
+                                String description, Tags tags) {
+        Gauge.builder(name, statistics, s -> f.applyAsDouble(s.snapshot()))
+                .description(description)
                 .tags(tags)
-                .register(meterRegistry);
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, CHUNK, USAGE), pcm, PoolChunkMetric::usage)
-                .description("Return the percentage of the current usage of the chunk.")
-                .tags(tags)
-                .register(meterRegistry);
-        Gauge.builder(dot(NETTY, ALLOC, ARENA, CHUNK, SIZE, AVAILABLE), pcm, PoolChunkMetric::freeBytes)
-                .description("Return the number of free bytes in the chunk.")
-                .tags(tags)
-                .register(meterRegistry);
+                .strongReference(true)
+                .register(meterRegistryProvider.get());
+    }
+
+    /**
+     * Aggregates the sub-pages and chunks of an arena when the meters are read. The aggregation is shared
+     * by all the meters of the arena for a short period so that a publication walks the chunks only once.
+     */
+    private static final class PoolArenaStatistics {
+
+        private static final long MAX_AGE = TimeUnit.SECONDS.toNanos(1);
+
+        private final PoolArenaMetric pam;
+        private final Clock clock;
+        private final boolean subpages;
+        private final boolean chunks;
+        private volatile Snapshot snapshot;
+
+        PoolArenaStatistics(PoolArenaMetric pam, Clock clock, boolean subpages, boolean chunks) {
+            this.pam = pam;
+            this.clock = clock;
+            this.subpages = subpages;
+            this.chunks = chunks;
+        }
+
+        Snapshot snapshot() {
+            long now = clock.monotonicTime();
+            Snapshot current = snapshot;
+            if (current == null || now - current.timestamp > MAX_AGE) {
+                current = new Snapshot(now);
+                snapshot = current;
+            }
+            return current;
+        }
+
+        /**
+         * The aggregated statistics of the arena at a given time.
+         */
+        private final class Snapshot {
+            private final long timestamp;
+            private long subpageMaxElements;
+            private long subpageAvailableElements;
+            private long chunkCount;
+            private long chunkBytes;
+            private long chunkFreeBytes;
+            private final long[] chunkListCounts;
+            private final long[] chunkListFreeBytes;
+
+            Snapshot(long timestamp) {
+                this.timestamp = timestamp;
+                if (subpages) {
+                    for (PoolSubpageMetric psm : pam.smallSubpages()) {
+                        subpageMaxElements += psm.maxNumElements();
+                        subpageAvailableElements += psm.numAvailable();
+                    }
+                }
+                List<PoolChunkListMetric> pclms = chunks ? pam.chunkLists() : List.of();
+                chunkListCounts = new long[pclms.size()];
+                chunkListFreeBytes = new long[pclms.size()];
+                for (int i = 0; i < pclms.size(); i++) {
+                    for (PoolChunkMetric pcm : pclms.get(i)) {
+                        chunkListCounts[i]++;
+                        chunkListFreeBytes[i] += pcm.freeBytes();
+                        chunkBytes += pcm.chunkSize();
+                    }
+                    chunkCount += chunkListCounts[i];
+                    chunkFreeBytes += chunkListFreeBytes[i];
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.netty;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Internal;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.internal.PlatformDependent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ALLOC;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ALLOCATION;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DEALLOCATION;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DIRECT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HEAP;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HUGE;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.LEAK;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MAX;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MEMORY;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NORMAL;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SIZE;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SMALL;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TRACED;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.UNTRACED;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.USED;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot;
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+import static io.micronaut.core.util.StringUtils.FALSE;
+
+/**
+ * Metrics for Netty direct memory: leaks reported by the {@link ResourceLeakDetector}, allocations and
+ * deallocations per size class of the pooled allocator and the direct memory used by Netty.
+ *
+ * @since 5.9.0
+ */
+@RequiresMetrics
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled", defaultValue = FALSE, notEquals = FALSE)
+@Requires(classes = ByteBufAllocator.class)
+@Context
+@Internal
+final class ByteBufMemoryMetricsBinder implements ResourceLeakDetector.LeakListener {
+
+    /**
+     * The binder installed as the JVM wide leak listener, Netty does not expose it.
+     */
+    private static final AtomicReference<ByteBufMemoryMetricsBinder> LEAK_LISTENER = new AtomicReference<>();
+
+    private final BeanProvider<MeterRegistry> meterRegistryProvider;
+    private final List<PoolArenaMetric> directArenas;
+    private final List<PoolArenaMetric> heapArenas;
+    private Counter tracedLeaks;
+    private Counter untracedLeaks;
+
+    /**
+     * Adds metrics for Netty's direct memory.
+     *
+     * @param meterRegistryProvider The metric registry provider.
+     */
+    ByteBufMemoryMetricsBinder(BeanProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        PooledByteBufAllocator allocator = ByteBufAllocator.DEFAULT instanceof PooledByteBufAllocator pooled ? pooled : PooledByteBufAllocator.DEFAULT;
+        PooledByteBufAllocatorMetric metric = allocator.metric();
+        directArenas = metric.directArenas();
+        heapArenas = metric.heapArenas();
+    }
+
+    /**
+     * Adds metrics for Netty's direct memory.
+     */
+    @PostConstruct
+    void configureNettyMetrics() {
+        MeterRegistry meterRegistry = meterRegistryProvider.get();
+
+        tracedLeaks = Counter.builder(dot(NETTY, ALLOC, LEAK, COUNT))
+                .description("The number of ByteBuf leaks reported with their access records.")
+                .tag(LEAK, TRACED)
+                .register(meterRegistry);
+        untracedLeaks = Counter.builder(dot(NETTY, ALLOC, LEAK, COUNT))
+                .description("The number of ByteBuf leaks reported without access records.")
+                .tag(LEAK, UNTRACED)
+                .register(meterRegistry);
+        synchronized (LEAK_LISTENER) {
+            LEAK_LISTENER.set(this);
+            ByteBufUtil.setLeakListener(this);
+        }
+
+        Gauge.builder(dot(NETTY, ALLOC, MEMORY, DIRECT, USED), PlatformDependent::usedDirectMemory)
+                .description("The number of bytes of direct memory used by Netty, or -1 when it is not tracked.")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder(dot(NETTY, ALLOC, MEMORY, DIRECT, MAX), PlatformDependent::maxDirectMemory)
+                .description("The maximum number of bytes of direct memory Netty can use.")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+
+        meterAllocations(meterRegistry, directArenas, Tags.of(MEMORY, DIRECT));
+        meterAllocations(meterRegistry, heapArenas, Tags.of(MEMORY, HEAP));
+    }
+
+    /**
+     * Removes the leak listener unless another context replaced it, so the registry of a closed context is
+     * no longer reachable from Netty.
+     */
+    @PreDestroy
+    void removeLeakListener() {
+        synchronized (LEAK_LISTENER) {
+            if (LEAK_LISTENER.compareAndSet(this, null)) {
+                ByteBufUtil.setLeakListener(null);
+            }
+        }
+    }
+
+    @Override
+    public void onLeak(String resourceType, String records) {
+        if (records == null || records.isEmpty()) {
+            untracedLeaks.increment();
+        } else {
+            tracedLeaks.increment();
+        }
+    }
+
+    private void meterAllocations(MeterRegistry meterRegistry, List<PoolArenaMetric> arenas, Tags tags) {
+        meterAllocations(meterRegistry, arenas, tags.and(SIZE, SMALL), PoolArenaMetric::numSmallAllocations, PoolArenaMetric::numSmallDeallocations);
+        meterAllocations(meterRegistry, arenas, tags.and(SIZE, NORMAL), PoolArenaMetric::numNormalAllocations, PoolArenaMetric::numNormalDeallocations);
+        meterAllocations(meterRegistry, arenas, tags.and(SIZE, HUGE), PoolArenaMetric::numHugeAllocations, PoolArenaMetric::numHugeDeallocations);
+    }
+
+    private void meterAllocations(MeterRegistry meterRegistry, List<PoolArenaMetric> arenas, Tags tags,
+                                  ToLongFunction<PoolArenaMetric> allocations, ToLongFunction<PoolArenaMetric> deallocations) {
+        FunctionCounter.builder(dot(NETTY, ALLOC, ALLOCATION), arenas, a -> sum(a, allocations))
+                .description("The number of allocations done by the arenas of the pooled allocator.")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder(dot(NETTY, ALLOC, DEALLOCATION), arenas, a -> sum(a, deallocations))
+                .description("The number of deallocations done by the arenas of the pooled allocator.")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+
+    private static double sum(List<PoolArenaMetric> arenas, ToLongFunction<PoolArenaMetric> f) {
+        long sum = 0;
+        for (PoolArenaMetric arena : arenas) {
+            sum += f.applyAsLong(arena);
+        }
+        return sum;
+    }
+}
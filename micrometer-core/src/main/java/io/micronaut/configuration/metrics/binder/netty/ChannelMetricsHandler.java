@@ -15,7 +15,9 @@
  */
 package io.micronaut.configuration.metrics.binder.netty;
 
+import io.micrometer.core.instrument.Clock;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
@@ -24,14 +26,19 @@ import io.micronaut.context.BeanProvider;
 import io.micronaut.core.annotation.Internal;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ACTIVE;
@@ -40,8 +47,10 @@ import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHANN
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ERROR;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.PENDING;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.READ;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TIME;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.UNWRITABLE;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.WRITTEN;
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot;
 
@@ -60,21 +69,23 @@ final class ChannelMetricsHandler extends ChannelDuplexHandler {
      */
     static final String CHANNEL_METRICS = "channel-metrics";
 
-    private static final String ACTIVE_CHANNEL_TIMER = "active-channel-timer";
+    private static final AttributeKey<ChannelState> CHANNEL_STATE = AttributeKey.valueOf(ChannelMetricsHandler.class, "state");
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelMetricsHandler.class);
 
-    private final BeanProvider<MeterRegistry> meterRegistryProvider;
-
     private final Counter bytesRead;
     private final Counter bytesWritten;
     private final Counter channelCount;
     private final Counter channelErrorCount;
     private final LongAdder activeChannelCount;
     private final Timer activeChannelTimer;
+    private final Counter unwritableCount;
+    private final Timer unwritableTimer;
+    private final LongAdder pendingBytes = new LongAdder();
+    private final Set<Channel> backlogged = ConcurrentHashMap.newKeySet();
+    private final Clock clock;
 
     ChannelMetricsHandler(BeanProvider<MeterRegistry> meterRegistryProvider) {
-        this.meterRegistryProvider = meterRegistryProvider;
         activeChannelCount = meterRegistryProvider.get().gauge(dot(NETTY, CHANNEL, COUNT, ACTIVE), Tags.of(CHANNEL, ACTIVE), new LongAdder());
         channelCount = Counter.builder(dot(NETTY, CHANNEL, COUNT))
                 .tag(CHANNEL, COUNT)
@@ -94,25 +105,67 @@ final class ChannelMetricsHandler extends ChannelDuplexHandler {
                 .tag(ACTIVE, TIME)
                 .publishPercentileHistogram()
                 .register(meterRegistryProvider.get());
+        unwritableCount = Counter.builder(dot(NETTY, CHANNEL, COUNT))
+                .tag(CHANNEL, UNWRITABLE)
+                .description("The number of times a channel became unwritable.")
+                .register(meterRegistryProvider.get());
+        unwritableTimer = Timer.builder(dot(NETTY, CHANNEL, UNWRITABLE, TIME))
+                .description("The time channels spent unwritable.")
+                .register(meterRegistryProvider.get());
+        Gauge.builder(dot(NETTY, CHANNEL, BYTE, PENDING), this, ChannelMetricsHandler::pendingBytes)
+                .description("The number of bytes pending in the outbound buffers of all channels.")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistryProvider.get());
+        clock = meterRegistryProvider.get().config().clock();
     }
 
     @Override
     public void channelRegistered(ChannelHandlerContext ctx) {
         channelCount.increment();
         activeChannelCount.increment();
-        ctx.pipeline().addAfter(
-                CHANNEL_METRICS,
-                ACTIVE_CHANNEL_TIMER,
-                new ActiveChannelTimerHandler());
+        ctx.channel().attr(CHANNEL_STATE).set(new ChannelState(clock.monotonicTime()));
         ctx.fireChannelRegistered();
     }
 
     @Override
     public void channelUnregistered(ChannelHandlerContext ctx) throws Exception {
         activeChannelCount.decrement();
+        ChannelState state = ctx.channel().attr(CHANNEL_STATE).getAndSet(null);
+        if (state != null) {
+            long now = clock.monotonicTime();
+            activeChannelTimer.record(now - state.registeredAt, TimeUnit.NANOSECONDS);
+            if (state.unwritable) {
+                unwritableTimer.record(now - state.unwritableSince, TimeUnit.NANOSECONDS);
+            }
+            // the outbound buffer is released with the channel
+            pendingBytes.add(-state.pendingBytes);
+            if (state.backlogged) {
+                backlogged.remove(ctx.channel());
+            }
+        }
         ctx.fireChannelUnregistered();
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        Channel channel = ctx.channel();
+        ChannelState state = channel.attr(CHANNEL_STATE).get();
+        if (state != null) {
+            if (!channel.isWritable()) {
+                if (!state.unwritable) {
+                    state.unwritable = true;
+                    state.unwritableSince = clock.monotonicTime();
+                    unwritableCount.increment();
+                }
+            } else if (state.unwritable) {
+                state.unwritable = false;
+                unwritableTimer.record(clock.monotonicTime() - state.unwritableSince, TimeUnit.NANOSECONDS);
+            }
+            updatePendingBytes(channel, state);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
         if (msg instanceof ByteBuf) {
@@ -149,6 +202,13 @@ final class ChannelMetricsHandler extends ChannelDuplexHandler {
         }
 
         ctx.write(msg, promise);
+        updatePendingBytes(ctx.channel());
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        ctx.flush();
+        updatePendingBytes(ctx.channel());
     }
 
     @Override
@@ -157,18 +217,74 @@ final class ChannelMetricsHandler extends ChannelDuplexHandler {
         ctx.fireExceptionCaught(cause);
     }
 
-    private class ActiveChannelTimerHandler extends ChannelInboundHandlerAdapter {
-        private final Timer.Sample start;
+    private void updatePendingBytes(Channel channel) {
+        ChannelState state = channel.attr(CHANNEL_STATE).get();
+        if (state != null) {
+            updatePendingBytes(channel, state);
+        }
+    }
+
+    /**
+     * Applies the difference between the outbound buffer of the channel and its last observed value to the
+     * pending bytes. The channels left with pending bytes are backlogged: Netty drains them on write readiness
+     * without going through the pipeline, so only their last observed value can be stale.
+     *
+     * @param channel The channel
+     * @param state The channel state
+     */
+    private void updatePendingBytes(Channel channel, ChannelState state) {
+        long pending = pendingWriteBytes(channel);
+        long delta = pending - state.pendingBytes;
+        if (delta != 0) {
+            state.pendingBytes = pending;
+            pendingBytes.add(delta);
+        }
+        boolean isBacklogged = pending > 0;
+        if (isBacklogged != state.backlogged) {
+            state.backlogged = isBacklogged;
+            if (isBacklogged) {
+                backlogged.add(channel);
+            } else {
+                backlogged.remove(channel);
+            }
+        }
+    }
 
-        ActiveChannelTimerHandler() {
-            start = Timer.start(meterRegistryProvider.get());
+    /**
+     * The pending bytes tracked from the handler events, corrected with the outbound buffers of the backlogged
+     * channels only, which may have been drained since they were last observed.
+     *
+     * @return The number of pending bytes
+     */
+    private double pendingBytes() {
+        long pending = pendingBytes.sum();
+        for (Channel channel : backlogged) {
+            ChannelState state = channel.attr(CHANNEL_STATE).get();
+            if (state != null) {
+                pending += pendingWriteBytes(channel) - state.pendingBytes;
+            }
         }
+        return pending;
+    }
+
+    private static long pendingWriteBytes(Channel channel) {
+        ChannelOutboundBuffer outboundBuffer = channel.unsafe().outboundBuffer();
+        return outboundBuffer == null ? 0 : outboundBuffer.totalPendingWriteBytes();
+    }
+
+    /**
+     * Per channel state, stored as a channel attribute and only updated from the channel's event loop. The
+     * pending bytes are also read when the gauge is polled.
+     */
+    private static final class ChannelState {
+        private final long registeredAt;
+        private boolean unwritable;
+        private long unwritableSince;
+        private volatile long pendingBytes;
+        private boolean backlogged;
 
-        @Override
-        public void channelUnregistered(ChannelHandlerContext ctx) {
-            start.stop(activeChannelTimer);
-            ctx.pipeline().remove(this);
-            ctx.fireChannelUnregistered();
+        ChannelState(long registeredAt) {
+            this.registeredAt = registeredAt;
         }
     }
 }
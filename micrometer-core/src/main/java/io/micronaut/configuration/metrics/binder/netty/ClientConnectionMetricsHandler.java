@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.netty;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.core.annotation.Internal;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.AttributeKey;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ACTIVE;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CLIENT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CLOSED;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CONNECT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CONNECTION;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CREATED;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ERROR;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HOST;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.PENDING;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.REUSE;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.STREAM;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TIME;
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot;
+
+/**
+ * Metrics for the connections opened by the Netty HTTP client, tagged by remote host.
+ *
+ * @since 5.9.0
+ */
+@Sharable
+@Internal
+final class ClientConnectionMetricsHandler extends ChannelOutboundHandlerAdapter {
+
+    /**
+     * Client connection metrics.
+     */
+    static final String CLIENT_CONNECTION_METRICS = "client-connection-metrics";
+
+    private static final AttributeKey<HostMetrics> HOST_METRICS = AttributeKey.valueOf(ClientConnectionMetricsHandler.class, "host");
+
+    private final BeanProvider<MeterRegistry> meterRegistryProvider;
+    private final Map<String, HostMetrics> hostMetrics = new ConcurrentHashMap<>();
+
+    ClientConnectionMetricsHandler(BeanProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public void connect(ChannelHandlerContext ctx, SocketAddress remoteAddress, SocketAddress localAddress, ChannelPromise promise) {
+        Channel channel = ctx.channel();
+        HostMetrics metrics = hostMetrics.computeIfAbsent(host(remoteAddress), HostMetrics::new);
+        channel.attr(HOST_METRICS).set(metrics);
+        metrics.pending.increment();
+        long start = metrics.clock.monotonicTime();
+        promise.addListener(future -> {
+            metrics.pending.decrement();
+            metrics.connectTimer.record(metrics.clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            if (future.isSuccess()) {
+                metrics.created.increment();
+                metrics.active.increment();
+                channel.closeFuture().addListener(closeFuture -> {
+                    metrics.active.decrement();
+                    metrics.closed.increment();
+                });
+            } else {
+                metrics.errors.increment();
+            }
+        });
+        ctx.connect(remoteAddress, localAddress, promise);
+    }
+
+    /**
+     * Records a new HTTP/2 stream opened on the given connection.
+     *
+     * @param connection The parent connection of the stream
+     */
+    void streamOpened(Channel connection) {
+        if (connection != null) {
+            HostMetrics metrics = connection.attr(HOST_METRICS).get();
+            if (metrics != null) {
+                metrics.streams.increment();
+            }
+        }
+    }
+
+    private static String host(SocketAddress remoteAddress) {
+        if (remoteAddress instanceof InetSocketAddress address) {
+            return address.getHostString() + ':' + address.getPort();
+        }
+        return String.valueOf(remoteAddress);
+    }
+
+    /**
+     * The meters of a remote host.
+     */
+    private final class HostMetrics {
+        private final Clock clock;
+        private final LongAdder pending = new LongAdder();
+        private final LongAdder active = new LongAdder();
+        private final LongAdder streams = new LongAdder();
+        private final Counter created;
+        private final Counter closed;
+        private final Counter errors;
+        private final Timer connectTimer;
+
+        HostMetrics(String host) {
+            MeterRegistry meterRegistry = meterRegistryProvider.get();
+            Tags tags = Tags.of(HOST, host);
+            clock = meterRegistry.config().clock();
+            created = Counter.builder(dot(NETTY, CLIENT, CONNECTION, COUNT))
+                    .description("The number of connections opened by the HTTP client.")
+                    .tags(tags.and(CONNECTION, CREATED))
+                    .register(meterRegistry);
+            closed = Counter.builder(dot(NETTY, CLIENT, CONNECTION, COUNT))
+                    .description("The number of connections of the HTTP client that were closed.")
+                    .tags(tags.and(CONNECTION, CLOSED))
+                    .register(meterRegistry);
+            errors = Counter.builder(dot(NETTY, CLIENT, CONNECTION, COUNT))
+                    .description("The number of connections of the HTTP client that failed to connect.")
+                    .tags(tags.and(CONNECTION, ERROR))
+                    .register(meterRegistry);
+            connectTimer = Timer.builder(dot(NETTY, CLIENT, CONNECTION, CONNECT, TIME))
+                    .description("The time requests waited for a new connection of the HTTP client to be established.")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder(dot(NETTY, CLIENT, CONNECTION, ACTIVE), active, LongAdder::doubleValue)
+                    .description("The number of open connections of the HTTP client.")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder(dot(NETTY, CLIENT, CONNECTION, PENDING), pending, LongAdder::doubleValue)
+                    .description("The number of connections of the HTTP client being established.")
+                    .tags(tags)
+                    .register(meterRegistry);
+            FunctionCounter.builder(dot(NETTY, CLIENT, CONNECTION, STREAM, COUNT), streams, LongAdder::doubleValue)
+                    .description("The number of HTTP/2 streams opened by the HTTP client.")
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder(dot(NETTY, CLIENT, CONNECTION, STREAM, REUSE), this, HostMetrics::streamReuse)
+                    .description("The average number of HTTP/2 streams opened per connection of the HTTP client.")
+                    .tags(tags)
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+
+        private double streamReuse() {
+            double connections = created.count();
+            return connections == 0 ? 0 : streams.sum() / connections;
+        }
+    }
+}
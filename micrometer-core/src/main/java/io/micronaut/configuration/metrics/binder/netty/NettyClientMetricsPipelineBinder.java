@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.netty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.http.client.netty.NettyClientCustomizer;
+import io.netty.channel.Channel;
+import jakarta.inject.Singleton;
+
+import static io.micronaut.configuration.metrics.binder.netty.ClientConnectionMetricsHandler.CLIENT_CONNECTION_METRICS;
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+import static io.micronaut.core.util.StringUtils.FALSE;
+
+/**
+ * Adds the connection metrics handler to the pipeline of the Netty HTTP client connections.
+ *
+ * @since 5.9.0
+ */
+@Singleton
+@Internal
+@RequiresMetrics
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".netty.client.enabled", defaultValue = FALSE, notEquals = FALSE)
+@Requires(classes = NettyClientCustomizer.class)
+final class NettyClientMetricsPipelineBinder implements BeanCreatedEventListener<NettyClientCustomizer.Registry> {
+
+    private final ClientConnectionMetricsHandler metricsHandler;
+
+    /**
+     * Builds a NettyClientMetricsPipelineBinder that will add client connection metrics.
+     *
+     * @param meterRegistryProvider The metrics registry provider.
+     */
+    NettyClientMetricsPipelineBinder(BeanProvider<MeterRegistry> meterRegistryProvider) {
+        metricsHandler = new ClientConnectionMetricsHandler(meterRegistryProvider);
+    }
+
+    @Override
+    public NettyClientCustomizer.Registry onCreated(BeanCreatedEvent<NettyClientCustomizer.Registry> event) {
+        NettyClientCustomizer.Registry registry = event.getBean();
+        registry.register(new MetricsCustomizer(null, metricsHandler));
+        return registry;
+    }
+
+    private record MetricsCustomizer(Channel channel,
+                                     ClientConnectionMetricsHandler metricsHandler) implements NettyClientCustomizer {
+
+        @Override
+        public NettyClientCustomizer specializeForChannel(Channel channel, ChannelRole role) {
+            if (role == ChannelRole.CONNECTION) {
+                return new MetricsCustomizer(channel, metricsHandler);
+            }
+            if (role == ChannelRole.HTTP2_STREAM) {
+                metricsHandler.streamOpened(channel.parent());
+            }
+            return this;
+        }
+
+        @Override
+        public void onInitialPipelineBuilt() {
+            if (channel != null) {
+                channel.pipeline().addFirst(CLIENT_CONNECTION_METRICS, metricsHandler);
+            }
+        }
+    }
+}
@@ -67,6 +67,11 @@ final class NettyMetrics {
     static final String AVAILABLE = "available";
     static final String PAGE = "page";
     static final String USAGE = "usage";
+    static final String FRAGMENTATION = "fragmentation";
+    static final String DEFAULT = "default";
+    static final String LEAK = "leak";
+    static final String TRACED = "traced";
+    static final String UNTRACED = "untraced";
 
     static final String WAIT_TIME = "wait.time";
     static final String EXECUTION_TIME = "execution.time";
@@ -78,6 +83,17 @@ final class NettyMetrics {
 
     static final String READ = "read";
     static final String WRITTEN = "written";
+    static final String PENDING = "pending";
+    static final String UNWRITABLE = "unwritable";
+
+    static final String CLIENT = "client";
+    static final String CONNECTION = "connection";
+    static final String CONNECT = "connect";
+    static final String CREATED = "created";
+    static final String CLOSED = "closed";
+    static final String HOST = "host";
+    static final String STREAM = "stream";
+    static final String REUSE = "reuse";
 
     private NettyMetrics() {
     }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.binder.reactor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.NonNull;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadFactory;
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS;
+import static io.micronaut.core.util.StringUtils.FALSE;
+
+/**
+ * Meters the tasks of Reactor's bounded elastic and parallel schedulers, replacing the deprecated
+ * {@code Schedulers.enableMetrics()}. The schedulers are created by a {@link Schedulers.Factory} wrapping them
+ * with {@link Micrometer#timedScheduler}, so this also applies to the schedulers created with
+ * {@link Schedulers#newBoundedElastic} and {@link Schedulers#newParallel}.
+ * <p>
+ * The factory is installed with {@link Schedulers#setFactoryWithSnapshot}, which unlike
+ * {@link Schedulers#setFactory} does not dispose the shared schedulers in use: they finish their work while the
+ * new tasks go to timed schedulers. On close, the previous factory and shared schedulers are restored the same
+ * way, without disposing the timed shared schedulers, whose idle threads expire.
+ *
+ * @since 5.9.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(property = MICRONAUT_METRICS_BINDERS + ".reactor.enabled", defaultValue = FALSE, notEquals = FALSE)
+@Requires(classes = Micrometer.class)
+public class ReactorSchedulerMetricsBinder implements MeterBinder {
+
+    /**
+     * The prefix of the scheduler meter names.
+     */
+    public static final String METRICS_PREFIX = "reactor.scheduler";
+
+    private static final String NAME_TAG = "name";
+
+    private Schedulers.Snapshot snapshot;
+
+    @Override
+    public synchronized void bindTo(@NonNull MeterRegistry registry) {
+        if (snapshot != null) {
+            return;
+        }
+        snapshot = Schedulers.setFactoryWithSnapshot(new Schedulers.Factory() {
+            @Override
+            public Scheduler newBoundedElastic(int threadCap, int queuedTaskCap, ThreadFactory threadFactory, int ttlSeconds) {
+                return Micrometer.timedScheduler(
+                        Schedulers.Factory.super.newBoundedElastic(threadCap, queuedTaskCap, threadFactory, ttlSeconds),
+                        registry, METRICS_PREFIX, Tags.of(NAME_TAG, "boundedElastic"));
+            }
+
+            @Override
+            public Scheduler newParallel(int parallelism, ThreadFactory threadFactory) {
+                return Micrometer.timedScheduler(
+                        Schedulers.Factory.super.newParallel(parallelism, threadFactory),
+                        registry, METRICS_PREFIX, Tags.of(NAME_TAG, "parallel"));
+            }
+        });
+    }
+
+    /**
+     * Restores the previous schedulers factory and shared schedulers, without disposing the timed ones.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (snapshot != null) {
+            // moves the timed shared schedulers out of the way without disposing them, so that restoring the
+            // snapshot only disposes the shared schedulers created in between, if any
+            Schedulers.setFactoryWithSnapshot(new Schedulers.Factory() { });
+            Schedulers.resetFrom(snapshot);
+            snapshot = null;
+        }
+    }
+}
@@ -23,6 +23,7 @@ public abstract class HttpMeterConfig {
 
     private Double[] percentiles = new Double[]{};
     private Boolean histogram = false;
+    private Boolean nativeHistogram = false;
     private Double min = null;
     private Double max = null;
     private Double[] slos = new Double[]{};
@@ -59,6 +60,24 @@ public abstract class HttpMeterConfig {
         this.histogram = histogram;
     }
 
+    /**
+     * Default: false.
+     * @return If the Prometheus registry should publish a native histogram instead of the classic histogram buckets.
+     * @since 5.9.0
+     */
+    public Boolean getNativeHistogram() {
+        return nativeHistogram;
+    }
+
+    /**
+     * Default: false.
+     * @param nativeHistogram If the Prometheus registry should publish a native histogram instead of the classic histogram buckets.
+     * @since 5.9.0
+     */
+    public void setNativeHistogram(Boolean nativeHistogram) {
+        this.nativeHistogram = nativeHistogram;
+    }
+
     /**
      * Default: Micrometer default value (0.001).
      * @return The minimum time (in s) value expected.
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the meters of a registry by name, maintained incrementally by the registry meter listeners
+ * so the endpoint never has to iterate over all the meters.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class MeterIndex {
+
+    private final NavigableMap<String, Set<Meter>> meters = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param meterRegistry The meter registry to index
+     */
+    MeterIndex(MeterRegistry meterRegistry) {
+        // listen first so no meter added while indexing the existing ones is missed
+        meterRegistry.config()
+                .onMeterAdded(this::add)
+                .onMeterRemoved(this::remove);
+        meterRegistry.getMeters().forEach(this::add);
+    }
+
+    /**
+     * Reads are lock free, updates are serialized so that a meter added while the last meter of the same
+     * name is removed is never lost.
+     *
+     * @param meter The added meter
+     */
+    private synchronized void add(Meter meter) {
+        String name = meter.getId().getName();
+        Set<Meter> named = meters.get(name);
+        if (named == null) {
+            named = ConcurrentHashMap.newKeySet();
+            meters.put(name, named);
+        }
+        named.add(meter);
+    }
+
+    private synchronized void remove(Meter meter) {
+        String name = meter.getId().getName();
+        Set<Meter> named = meters.get(name);
+        if (named != null && named.remove(meter) && named.isEmpty()) {
+            meters.remove(name);
+        }
+    }
+
+    /**
+     * @param prefix The name prefix, or null for all the meters
+     * @return A live view of the meters by name, sorted by name
+     */
+    NavigableMap<String, Set<Meter>> byName(@Nullable String prefix) {
+        if (StringUtils.isEmpty(prefix)) {
+            return meters;
+        }
+        return meters.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Matches the names of the meters against names or glob patterns, where {@code *} matches any sequence of
+     * characters and {@code ?} any single character. Only the names sharing the literal prefix of a pattern
+     * are compared with it.
+     *
+     * @param patterns The names or glob patterns
+     * @return The meters of the matching names, sorted by name
+     */
+    SortedMap<String, Set<Meter>> match(Collection<String> patterns) {
+        SortedMap<String, Set<Meter>> matched = new TreeMap<>();
+        for (String pattern : patterns) {
+            int wildcard = indexOfWildcard(pattern);
+            if (wildcard < 0) {
+                Set<Meter> named = meters.get(pattern);
+                if (named != null) {
+                    matched.put(pattern, named);
+                }
+            } else {
+                Pattern regex = globToRegex(pattern);
+                byName(pattern.substring(0, wildcard)).forEach((name, named) -> {
+                    if (regex.matcher(name).matches()) {
+                        matched.put(name, named);
+                    }
+                });
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * @param name The meter name
+     * @param tags The tags the meters must have
+     * @return The meters with the given name and tags
+     */
+    List<Meter> find(String name, List<Tag> tags) {
+        Set<Meter> named = meters.get(name);
+        if (named == null) {
+            return Collections.emptyList();
+        }
+        return filter(named, tags);
+    }
+
+    /**
+     * @param meters The meters
+     * @param tags The tags the meters must have
+     * @return The meters with the given tags
+     */
+    static List<Meter> filter(Collection<Meter> meters, List<Tag> tags) {
+        List<Meter> found = new ArrayList<>(meters.size());
+        for (Meter meter : meters) {
+            if (matches(meter.getId(), tags)) {
+                found.add(meter);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @param id The meter id
+     * @param tags The tags
+     * @return Whether the meter has all the tags
+     */
+    static boolean matches(Meter.Id id, List<Tag> tags) {
+        for (Tag tag : tags) {
+            if (!tag.getValue().equals(id.getTag(tag.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        int literalStart = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Statistic;
+import io.micronaut.core.annotation.Internal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the rates and deltas of the cumulative statistics of metric queries from a ring buffer of
+ * their recent snapshots. A snapshot is taken when a query is repeated, at most once per minimum interval,
+ * so only the queried metrics are tracked. The number of tracked queries is bounded, the least recently
+ * queried being evicted first, and queries not repeated for a while are expired.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class MeterRates {
+
+    private static final Statistic[] CUMULATIVE = {Statistic.COUNT, Statistic.TOTAL, Statistic.TOTAL_TIME};
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+    private static final int MAX_CAPACITY = 1024;
+
+    private final Clock clock;
+    private final Duration[] windows;
+    private final long[] windowNanos;
+    private final long minIntervalNanos;
+    private final long expireAfterNanos;
+    private final int capacity;
+    private final Map<String, History> histories;
+
+    /**
+     * @param clock The clock
+     * @param configuration The rates configuration
+     */
+    MeterRates(Clock clock, MetricRatesConfiguration configuration) {
+        this.clock = clock;
+        windows = configuration.getWindows().toArray(new Duration[0]);
+        windowNanos = Arrays.stream(windows).mapToLong(Duration::toNanos).toArray();
+        minIntervalNanos = configuration.getMinInterval().toNanos();
+        expireAfterNanos = configuration.getExpireAfter().toNanos();
+        long maxWindow = Arrays.stream(windowNanos).max().orElse(0);
+        capacity = (int) Math.min(MAX_CAPACITY, maxWindow / Math.max(1, minIntervalNanos) + 2);
+        int maxMeters = configuration.getMaxMeters();
+        histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, History> eldest) {
+                return size() > maxMeters;
+            }
+        };
+    }
+
+    /**
+     * Records the current samples of a metric query and computes the rates and deltas over each window
+     * from the oldest snapshot within the window.
+     *
+     * @param key The metric query key
+     * @param samples The current samples
+     * @return The rates and deltas
+     */
+    synchronized List<MetricsEndpoint.RateSample> record(String key, List<MetricsEndpoint.Sample> samples) {
+        long now = clock.monotonicTime();
+        expire(now);
+        double[] values = cumulativeValues(samples);
+        History history = histories.computeIfAbsent(key, k -> new History(capacity));
+        history.lastQueried = now;
+        List<MetricsEndpoint.RateSample> rates = history.rates(now, values);
+        history.add(now, values);
+        return rates;
+    }
+
+    private void expire(long now) {
+        Iterator<History> iterator = histories.values().iterator();
+        // access order, the least recently queried first
+        while (iterator.hasNext() && now - iterator.next().lastQueried > expireAfterNanos) {
+            iterator.remove();
+        }
+    }
+
+    private static double[] cumulativeValues(List<MetricsEndpoint.Sample> samples) {
+        double[] values = new double[CUMULATIVE.length];
+        Arrays.fill(values, Double.NaN);
+        for (MetricsEndpoint.Sample sample : samples) {
+            for (int i = 0; i < CUMULATIVE.length; i++) {
+                if (CUMULATIVE[i] == sample.getStatistic()) {
+                    values[i] = sample.getValue();
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Ring buffer of the snapshots of a metric query.
+     */
+    private final class History {
+        private final long[] times;
+        private final double[][] values;
+        private int head;
+        private int size;
+        private long lastQueried;
+
+        History(int capacity) {
+            times = new long[capacity];
+            values = new double[capacity][];
+        }
+
+        void add(long time, double[] snapshot) {
+            if (size > 0 && time - times[index(size - 1)] < minIntervalNanos) {
+                return;
+            }
+            int index = index(size);
+            times[index] = time;
+            values[index] = snapshot;
+            if (size < times.length) {
+                size++;
+            } else {
+                head = (head + 1) % times.length;
+            }
+        }
+
+        List<MetricsEndpoint.RateSample> rates(long now, double[] current) {
+            List<MetricsEndpoint.RateSample> rates = new ArrayList<>();
+            for (int w = 0; w < windows.length; w++) {
+                int oldest = oldestWithin(now - windowNanos[w], now);
+                if (oldest < 0) {
+                    continue;
+                }
+                double elapsedSeconds = (now - times[oldest]) / NANOS_PER_SECOND;
+                for (int i = 0; i < CUMULATIVE.length; i++) {
+                    double previous = values[oldest][i];
+                    if (!Double.isNaN(current[i]) && !Double.isNaN(previous)) {
+                        double delta = current[i] - previous;
+                        rates.add(new MetricsEndpoint.RateSample(CUMULATIVE[i], windows[w], delta, delta / elapsedSeconds));
+                    }
+                }
+            }
+            return rates;
+        }
+
+        private int oldestWithin(long start, long now) {
+            for (int i = 0; i < size; i++) {
+                int index = index(i);
+                if (times[index] >= start) {
+                    return times[index] < now ? index : -1;
+                }
+            }
+            return -1;
+        }
+
+        private int index(int i) {
+            return (head + i) % times.length;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the rates and deltas computed by the {@link MetricsEndpoint}.
+ *
+ * @since 5.9.0
+ */
+@ConfigurationProperties(MetricRatesConfiguration.PREFIX)
+public class MetricRatesConfiguration {
+
+    /**
+     * The configuration prefix.
+     */
+    public static final String PREFIX = "endpoints." + MetricsEndpoint.NAME + ".rates";
+
+    private List<Duration> windows = List.of(Duration.ofMinutes(1), Duration.ofMinutes(5));
+    private Duration minInterval = Duration.ofSeconds(5);
+    private int maxMeters = 1000;
+    private Duration expireAfter = Duration.ofMinutes(10);
+
+    /**
+     * Default: 1m and 5m.
+     * @return The windows over which rates and deltas are computed.
+     */
+    public List<Duration> getWindows() {
+        return windows;
+    }
+
+    /**
+     * Default: 1m and 5m.
+     * @param windows The windows over which rates and deltas are computed.
+     */
+    public void setWindows(List<Duration> windows) {
+        this.windows = windows;
+    }
+
+    /**
+     * Default: 5s.
+     * @return The minimum interval between two snapshots of a metric. Queries within the interval reuse the last snapshot.
+     */
+    public Duration getMinInterval() {
+        return minInterval;
+    }
+
+    /**
+     * Default: 5s.
+     * @param minInterval The minimum interval between two snapshots of a metric. Queries within the interval reuse the last snapshot.
+     */
+    public void setMinInterval(Duration minInterval) {
+        this.minInterval = minInterval;
+    }
+
+    /**
+     * Default: 1000.
+     * @return The maximum number of metric queries tracked. The least recently queried are evicted first.
+     */
+    public int getMaxMeters() {
+        return maxMeters;
+    }
+
+    /**
+     * Default: 1000.
+     * @param maxMeters The maximum number of metric queries tracked. The least recently queried are evicted first.
+     */
+    public void setMaxMeters(int maxMeters) {
+        this.maxMeters = maxMeters;
+    }
+
+    /**
+     * Default: 10m.
+     * @return The time after which a metric query that is not repeated stops being tracked.
+     */
+    public Duration getExpireAfter() {
+        return expireAfter;
+    }
+
+    /**
+     * Default: 10m.
+     * @param expireAfter The time after which a metric query that is not repeated stops being tracked.
+     */
+    public void setExpireAfter(Duration expireAfter) {
+        this.expireAfter = expireAfter;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.bind.exceptions.UnsatisfiedArgumentException;
+import io.micronaut.core.type.Argument;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.List;
+
+/**
+ * Reads the details of several metrics at once, e.g.
+ * {@code /metricsbatch?name=jvm.memory.*&name=process.uptime&tag=area:heap}.
+ * <p>
+ * The read is exposed on its own endpoint because the {@code GET /metrics} route already lists the metric
+ * names. Its sensitivity is configured with {@code endpoints.metricsbatch.sensitive}.
+ *
+ * @since 5.9.0
+ */
+@Endpoint(value = MetricsBatchEndpoint.NAME, defaultSensitive = MetricsEndpoint.DEFAULT_SENSITIVE)
+@RequiresMetrics
+public class MetricsBatchEndpoint {
+
+    /**
+     * Constant for the metrics batch read.
+     */
+    static final String NAME = "metricsbatch";
+
+    private final MetricsEndpoint metricsEndpoint;
+
+    /**
+     * @param metricsEndpoint The metrics endpoint
+     */
+    public MetricsBatchEndpoint(MetricsEndpoint metricsEndpoint) {
+        this.metricsEndpoint = metricsEndpoint;
+    }
+
+    /**
+     * Reads the details of the metrics matching the names, or glob patterns, and the tags.
+     *
+     * @param name the names or glob patterns of the metrics
+     * @param tag  The tags
+     * @return the details of the matching metrics, sorted by name
+     * @see MetricsEndpoint#getMetricsDetails(List, List)
+     */
+    @Read
+    public List<MetricsEndpoint.MetricDetails> getMetricsDetails(List<String> name,
+                                                                 @Nullable List<String> tag) {
+        if (name == null || name.isEmpty()) {
+            throw new UnsatisfiedArgumentException(Argument.of(List.class, "name"), "At least one name is required");
+        }
+        return metricsEndpoint.getMetricsDetails(name, tag);
+    }
+}
@@ -15,11 +15,17 @@
  */
 package io.micronaut.configuration.metrics.management.endpoint;
 
+import io.micrometer.core.instrument.LongTaskTimer;
 import io.micrometer.core.instrument.Measurement;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Statistic;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.HistogramSupport;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
 import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.Nullable;
@@ -29,19 +35,25 @@ import io.micronaut.core.type.Argument;
 import io.micronaut.management.endpoint.annotation.Endpoint;
 import io.micronaut.management.endpoint.annotation.Read;
 import io.micronaut.management.endpoint.annotation.Selector;
+import jakarta.inject.Inject;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -61,7 +73,10 @@ import static io.micronaut.core.annotation.TypeHint.AccessType.ALL_PUBLIC_METHOD
         MetricsEndpoint.MetricNames.class,
         MetricsEndpoint.MetricDetails.class,
         MetricsEndpoint.AvailableTag.class,
-        MetricsEndpoint.Sample.class},
+        MetricsEndpoint.Sample.class,
+        MetricsEndpoint.PercentileSample.class,
+        MetricsEndpoint.BucketSample.class,
+        MetricsEndpoint.RateSample.class},
         accessType = {ALL_DECLARED_CONSTRUCTORS, ALL_PUBLIC_METHODS})
 public class MetricsEndpoint {
 
@@ -75,15 +90,34 @@ public class MetricsEndpoint {
      */
     static final String NAME = "metrics";
 
-    private final MeterRegistry meterRegistry;
+    private static final Statistic[] STATISTICS = Statistic.values();
+
+    private final MeterIndex meterIndex;
+    private final MeterRates meterRates;
 
     /**
      * @param meterRegistry The meter registry
      * @param dataSources   To ensure data sources are loaded
+     * @deprecated Pass the rates configuration in new constructor
      */
+    @Deprecated(since = "5.9.0", forRemoval = true)
     public MetricsEndpoint(MeterRegistry meterRegistry,
                            DataSource[] dataSources) {
-        this.meterRegistry = meterRegistry;
+        this(meterRegistry, dataSources, new MetricRatesConfiguration());
+    }
+
+    /**
+     * @param meterRegistry      The meter registry
+     * @param dataSources        To ensure data sources are loaded
+     * @param ratesConfiguration The rates configuration
+     * @since 5.9.0
+     */
+    @Inject
+    public MetricsEndpoint(MeterRegistry meterRegistry,
+                           DataSource[] dataSources,
+                           MetricRatesConfiguration ratesConfiguration) {
+        this.meterIndex = new MeterIndex(meterRegistry);
+        this.meterRates = new MeterRates(meterRegistry.config().clock(), ratesConfiguration);
     }
 
     /**
@@ -91,12 +125,42 @@ public class MetricsEndpoint {
      *
      * @return single of HTTP response with metric names
      */
-    @Read
     public MetricNames listNames() {
-        return new MetricNames(
-                meterRegistry.getMeters().stream()
-                        .map(this::getName)
-                        .collect(TreeSet::new, TreeSet::add, TreeSet::addAll));
+        return listNames(null, null, null);
+    }
+
+    /**
+     * Lists metric names, sorted by name. To get the details, invoke the method {@code getMetricDetails(name)}.
+     * <p>
+     * The names are paginated with a cursor: when a limit is given and more names are available, the
+     * response contains the name to pass as {@code after} to read the next page.
+     *
+     * @param prefix The prefix of the names to list
+     * @param after  The name after which the listing starts
+     * @param limit  The maximum number of names to list
+     * @return single of HTTP response with metric names
+     */
+    @Read
+    public MetricNames listNames(@Nullable String prefix,
+                                 @Nullable String after,
+                                 @Nullable Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new UnsatisfiedArgumentException(Argument.of(Integer.class, "limit"), "Limit must be positive");
+        }
+        NavigableMap<String, Set<Meter>> names = meterIndex.byName(prefix);
+        if (after != null) {
+            names = names.tailMap(after, false);
+        }
+        if (limit == null) {
+            return new MetricNames(new TreeSet<>(names.navigableKeySet()), null);
+        }
+        // the index changes concurrently, so the page is copied rather than serialized from a view
+        SortedSet<String> page = new TreeSet<>();
+        Iterator<String> iterator = names.navigableKeySet().iterator();
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return new MetricNames(page, iterator.hasNext() ? page.last() : null);
     }
 
     /**
@@ -112,10 +176,60 @@ public class MetricsEndpoint {
      * @param tag  The tags
      * @return single with metric details response
      */
+    public MetricDetails getMetricDetails(String name,
+                                          @Nullable List<String> tag) {
+        return getMetricDetailsResponse(name, tag, false);
+    }
+
+    /**
+     * Reads individual metric data, optionally with the rates and deltas of its cumulative statistics.
+     * <p>
+     * The rates and deltas are computed from the snapshots taken when the same metric and tags were
+     * queried before, so they are only available from the second query on.
+     * <p>
+     * Will return a 404 if the metric is not found.
+     *
+     * @param name  the name of the metric to get the details for
+     * @param tag   The tags
+     * @param rates Whether to compute the rates and deltas
+     * @return single with metric details response
+     * @since 5.9.0
+     */
     @Read
     public MetricDetails getMetricDetails(@Selector String name,
-                                          @Nullable List<String> tag) {
-        return getMetricDetailsResponse(name, tag);
+                                          @Nullable List<String> tag,
+                                          @Nullable Boolean rates) {
+        return getMetricDetailsResponse(name, tag, Boolean.TRUE.equals(rates));
+    }
+
+    /**
+     * Reads the data of several metrics at once.
+     * <p>
+     * The names can be glob patterns, where {@code *} matches any sequence of characters and {@code ?}
+     * any single character, e.g. {@code jvm.memory.*}. The tags, in the form {@code key:value}, apply to
+     * all the metrics. Metrics without meters matching the tags are omitted.
+     * <p>
+     * Exposed over HTTP by the {@link MetricsBatchEndpoint}.
+     *
+     * @param names the names or glob patterns of the metrics to get the details for
+     * @param tags  The tags
+     * @return the details of the matching metrics, sorted by name
+     * @since 5.9.0
+     */
+    public List<MetricDetails> getMetricsDetails(List<String> names,
+                                                 @Nullable List<String> tags) {
+        if (names == null || names.isEmpty()) {
+            throw new UnsatisfiedArgumentException(Argument.of(List.class, "names"), "At least one name is required");
+        }
+        List<Tag> filter = parseTags(tags);
+        List<MetricDetails> details = new ArrayList<>();
+        meterIndex.match(names).forEach((name, named) -> {
+            List<Meter> meters = MeterIndex.filter(named, filter);
+            if (!meters.isEmpty()) {
+                details.add(getMetricDetails(name, meters, filter));
+            }
+        });
+        return details;
     }
 
     /**
@@ -129,95 +243,218 @@ public class MetricsEndpoint {
      *
      * @param name     the name of the meter to get the details for.
      * @param tagNames The tags
+     * @param rates    Whether to compute the rates and deltas
      * @return single with metric details response
      */
-    private MetricDetails getMetricDetailsResponse(String name, List<String> tagNames) {
-        List<Tag> tags = tagNames == null ? Collections.emptyList() : tagNames.stream().map(s -> {
-            if (s.contains(":")) {
-                String[] tv = s.split(":");
-                if (tv.length == 2) {
-                    return Tag.of(tv[0], tv[1]);
-                }
-            }
-            throw new UnsatisfiedArgumentException(Argument.of(List.class, "tags"), "Tags must be in the form key:value");
-        }).collect(Collectors.toList());
-
-        Collection<Meter> meters = meterRegistry.find(name).tags(tags).meters();
+    private MetricDetails getMetricDetailsResponse(String name, List<String> tagNames, boolean rates) {
+        List<Tag> tags = parseTags(tagNames);
+        List<Meter> meters = meterIndex.find(name, tags);
         if (meters.isEmpty()) {
             return null;
         }
-        Map<Statistic, Double> samples = getSamples(meters);
+        MetricDetails details = getMetricDetails(name, meters, tags);
+        if (rates) {
+            details.rates = meterRates.record(rateKey(name, tags), details.getMeasurements());
+        }
+        return details;
+    }
+
+    private static String rateKey(String name, List<Tag> tags) {
+        if (tags.isEmpty()) {
+            return name;
+        }
+        StringBuilder key = new StringBuilder(name);
+        tags.stream().sorted().forEach(t -> key.append(',').append(t.getKey()).append('=').append(t.getValue()));
+        return key.toString();
+    }
+
+    private MetricDetails getMetricDetails(String name, List<Meter> meters, List<Tag> tags) {
+        List<Sample> samples = getSamples(meters);
         Map<String, Set<String>> availableTags = getAvailableTags(meters);
         for (Tag t : tags) {
             availableTags.remove(t.getKey());
         }
-        Meter.Id meterId = meters.iterator().next().getId();
+        Meter.Id meterId = meters.get(0).getId();
+        Distribution distribution = getDistribution(meters);
         return new MetricDetails(name,
-                asList(samples, Sample::new),
+                samples,
                 asList(availableTags, AvailableTag::new),
                 meterId.getDescription(),
-                meterId.getBaseUnit());
+                meterId.getBaseUnit(),
+                distribution.percentiles(),
+                distribution.histogram());
     }
 
-    private Map<Statistic, Double> getSamples(Collection<Meter> meters) {
-        Map<Statistic, Double> samples = new LinkedHashMap<>();
+    /**
+     * Gets the histogram buckets and percentiles of the meters supporting histograms. The cumulative bucket
+     * counts of the meters are added together when all the meters share the same bucket bounds, otherwise the
+     * merged histogram would not be cumulative and no histogram is reported. The percentiles of a single meter
+     * are reported as is, while the percentiles of several meters are estimated from their merged histogram, as
+     * percentiles cannot be added.
+     *
+     * @param meters the meters
+     * @return the distribution
+     */
+    private Distribution getDistribution(List<Meter> meters) {
+        TimeUnit unit = null;
+        HistogramSnapshot first = null;
+        double[] bounds = null;
+        boolean sameBounds = true;
+        int snapshots = 0;
+        double count = 0;
+        double max = 0;
+        NavigableMap<Double, Double> buckets = new TreeMap<>();
         for (Meter meter : meters) {
-            mergeMeasurements(samples, meter);
+            if (!(meter instanceof HistogramSupport histogramSupport)) {
+                continue;
+            }
+            if (meter instanceof Timer timer) {
+                unit = timer.baseTimeUnit();
+            } else if (meter instanceof LongTaskTimer longTaskTimer) {
+                unit = longTaskTimer.baseTimeUnit();
+            }
+            HistogramSnapshot snapshot = histogramSupport.takeSnapshot();
+            CountAtBucket[] histogramCounts = snapshot.histogramCounts();
+            double[] snapshotBounds = new double[histogramCounts.length];
+            for (int i = 0; i < histogramCounts.length; i++) {
+                snapshotBounds[i] = unit == null ? histogramCounts[i].bucket() : histogramCounts[i].bucket(unit);
+            }
+            if (first == null) {
+                first = snapshot;
+                bounds = snapshotBounds;
+            } else if (!Arrays.equals(bounds, snapshotBounds)) {
+                sameBounds = false;
+                break;
+            }
+            snapshots++;
+            count += snapshot.count();
+            max = Math.max(max, unit == null ? snapshot.max() : snapshot.max(unit));
+            for (int i = 0; i < histogramCounts.length; i++) {
+                buckets.merge(snapshotBounds[i], histogramCounts[i].count(), Double::sum);
+            }
         }
-        return samples;
-    }
-
-    private void mergeMeasurements(Map<Statistic, Double> samples, Meter meter) {
-        for (Measurement measurement : meter.measure()) {
-            samples.merge(measurement.getStatistic(),
-                    measurement.getValue(), mergeFunction(measurement.getStatistic()));
+        if (first == null || !sameBounds) {
+            return Distribution.NONE;
+        }
+        List<BucketSample> histogram = buckets.isEmpty() ? null : asList(buckets, BucketSample::new);
+        List<PercentileSample> percentiles = null;
+        ValueAtPercentile[] percentileValues = first.percentileValues();
+        if (percentileValues.length > 0 && (snapshots == 1 || !buckets.isEmpty())) {
+            percentiles = new ArrayList<>(percentileValues.length);
+            for (ValueAtPercentile percentile : percentileValues) {
+                double value;
+                if (snapshots == 1) {
+                    value = unit == null ? percentile.value() : percentile.value(unit);
+                } else {
+                    value = estimatePercentile(percentile.percentile(), buckets, count, max);
+                }
+                percentiles.add(new PercentileSample(percentile.percentile(), value));
+            }
         }
+        return new Distribution(percentiles, histogram);
     }
 
-    private BiFunction<Double, Double, Double> mergeFunction(Statistic statistic) {
-        return (Statistic.MAX.equals(statistic) ? Double::max : Double::sum);
+    /**
+     * Estimates a percentile from cumulative bucket counts by linear interpolation within the bucket of
+     * the percentile rank.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @param buckets    the cumulative counts by bucket upper bound
+     * @param count      the total count
+     * @param max        the maximum value, for ranks beyond the last bucket
+     * @return the estimated value
+     */
+    private static double estimatePercentile(double percentile, NavigableMap<Double, Double> buckets, double count, double max) {
+        if (count == 0) {
+            return 0;
+        }
+        double rank = percentile * count;
+        double previousBound = 0;
+        double previousCount = 0;
+        for (Map.Entry<Double, Double> bucket : buckets.entrySet()) {
+            double bound = bucket.getKey();
+            double cumulativeCount = bucket.getValue();
+            if (cumulativeCount >= rank) {
+                double inBucket = cumulativeCount - previousCount;
+                if (inBucket == 0) {
+                    return bound;
+                }
+                return previousBound + (bound - previousBound) * (rank - previousCount) / inBucket;
+            }
+            previousBound = bound;
+            previousCount = cumulativeCount;
+        }
+        return max;
     }
 
     /**
-     * Get all the available tags.
-     *
-     * @param meters meters to iterate
-     * @return map of the tags
+     * @param tagNames The tags, in the form {@code key:value}
+     * @return The parsed tags
+     * @throws UnsatisfiedArgumentException if a tag is malformed
      */
-    private Map<String, Set<String>> getAvailableTags(Collection<Meter> meters) {
-        Map<String, Set<String>> availableTags = new HashMap<>();
-        for (Meter meter : meters) {
-            mergeAvailableTags(availableTags, meter);
+    static List<Tag> parseTags(@Nullable List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return Collections.emptyList();
         }
-        return availableTags;
+        List<Tag> tags = new ArrayList<>(tagNames.size());
+        for (String s : tagNames) {
+            int separator = s.indexOf(':');
+            if (separator < 0 || separator == s.length() - 1 || separator != s.lastIndexOf(':')) {
+                throw new UnsatisfiedArgumentException(Argument.of(List.class, "tags"), "Tags must be in the form key:value");
+            }
+            tags.add(Tag.of(s.substring(0, separator), s.substring(separator + 1)));
+        }
+        return tags;
     }
 
     /**
-     * Merge the tags from across all the meters.
+     * Merges the measurements of the meters, in the order the statistics are first measured, without
+     * boxing the intermediate values.
      *
-     * @param availableTags all the tags
-     * @param meter         the meter to get tags from
+     * @param meters meters to merge
+     * @return the merged samples
      */
-    private void mergeAvailableTags(Map<String, Set<String>> availableTags, Meter meter) {
-        for (Tag tag : meter.getId().getTags()) {
-            Set<String> value = Collections.singleton(tag.getValue());
-            availableTags.merge(tag.getKey(), value, this::merge);
+    private List<Sample> getSamples(List<Meter> meters) {
+        double[] values = new double[STATISTICS.length];
+        int[] order = new int[STATISTICS.length];
+        boolean[] measured = new boolean[STATISTICS.length];
+        int count = 0;
+        for (Meter meter : meters) {
+            for (Measurement measurement : meter.measure()) {
+                int statistic = measurement.getStatistic().ordinal();
+                double value = measurement.getValue();
+                if (!measured[statistic]) {
+                    measured[statistic] = true;
+                    order[count++] = statistic;
+                    values[statistic] = value;
+                } else if (statistic == Statistic.MAX.ordinal()) {
+                    values[statistic] = Math.max(values[statistic], value);
+                } else {
+                    values[statistic] += value;
+                }
+            }
+        }
+        List<Sample> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            samples.add(new Sample(STATISTICS[order[i]], values[order[i]]));
         }
+        return samples;
     }
 
     /**
-     * Merge two sets.
+     * Get all the available tags.
      *
-     * @param set1 first set
-     * @param set2 second set
-     * @param <T>  Type
-     * @return merged set
+     * @param meters meters to iterate
+     * @return map of the tags
      */
-    private <T> Set<T> merge(Set<T> set1, Set<T> set2) {
-        Set<T> result = new HashSet<>(set1.size() + set2.size());
-        result.addAll(set1);
-        result.addAll(set2);
-        return result;
+    private Map<String, Set<String>> getAvailableTags(Collection<Meter> meters) {
+        Map<String, Set<String>> availableTags = new HashMap<>();
+        for (Meter meter : meters) {
+            for (Tag tag : meter.getId().getTagsAsIterable()) {
+                availableTags.computeIfAbsent(tag.getKey(), k -> new HashSet<>()).add(tag.getValue());
+            }
+        }
+        return availableTags;
     }
 
     private <K, V, T> List<T> asList(Map<K, V> map, BiFunction<K, V, T> mapper) {
@@ -226,16 +463,6 @@ public class MetricsEndpoint {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
-    /**
-     * Get the meter name.
-     *
-     * @param meter Meter
-     * @return name of the meter
-     */
-    private String getName(Meter meter) {
-        return meter.getId().getName();
-    }
-
     /**
      * Response payload for a metric name listing.
      */
@@ -244,13 +471,26 @@ public class MetricsEndpoint {
 
         private final SortedSet<String> names;
 
+        private final String next;
+
         /**
          * Object to hold metric names.
          *
          * @param names list of names
          */
         MetricNames(SortedSet<String> names) {
+            this(names, null);
+        }
+
+        /**
+         * Object to hold a page of metric names.
+         *
+         * @param names list of names
+         * @param next  the name after which the next page starts, if any
+         */
+        MetricNames(SortedSet<String> names, @Nullable String next) {
             this.names = names;
+            this.next = next;
         }
 
         /**
@@ -261,6 +501,17 @@ public class MetricsEndpoint {
         public SortedSet<String> getNames() {
             return names;
         }
+
+        /**
+         * Get the name to pass as {@code after} to read the next page.
+         *
+         * @return the last name of the page, or null if there are no more names
+         * @since 5.9.0
+         */
+        @Nullable
+        public String getNext() {
+            return next;
+        }
     }
 
     /**
@@ -279,6 +530,12 @@ public class MetricsEndpoint {
 
         private final String baseUnit;
 
+        private final List<PercentileSample> percentiles;
+
+        private final List<BucketSample> histogram;
+
+        private List<RateSample> rates;
+
         /**
          * Object to hold metric response for name, value and tags.
          *
@@ -287,17 +544,23 @@ public class MetricsEndpoint {
          * @param availableTags tags
          * @param description   description of the metric
          * @param baseUnit      metric base unit
+         * @param percentiles   percentiles, or null
+         * @param histogram     cumulative histogram bucket counts, or null
          */
         MetricDetails(String name,
                       List<Sample> measurements,
                       List<AvailableTag> availableTags,
                       String description,
-                      String baseUnit) {
+                      String baseUnit,
+                      @Nullable List<PercentileSample> percentiles,
+                      @Nullable List<BucketSample> histogram) {
             this.name = name;
             this.measurements = measurements;
             this.availableTags = availableTags;
             this.description = description;
             this.baseUnit = baseUnit;
+            this.percentiles = percentiles;
+            this.histogram = histogram;
         }
 
         /**
@@ -345,6 +608,39 @@ public class MetricsEndpoint {
             return baseUnit;
         }
 
+        /**
+         * Get the percentiles, in the base unit.
+         *
+         * @return list of percentiles, or null if the meters publish none
+         * @since 5.9.0
+         */
+        @Nullable
+        public List<PercentileSample> getPercentiles() {
+            return percentiles;
+        }
+
+        /**
+         * Get the cumulative histogram bucket counts.
+         *
+         * @return list of buckets, or null if the meters publish no histogram
+         * @since 5.9.0
+         */
+        @Nullable
+        public List<BucketSample> getHistogram() {
+            return histogram;
+        }
+
+        /**
+         * Get the rates and deltas of the cumulative statistics.
+         *
+         * @return list of rates, or null if not requested
+         * @since 5.9.0
+         */
+        @Nullable
+        public List<RateSample> getRates() {
+            return rates;
+        }
+
     }
 
     /**
@@ -432,4 +728,167 @@ public class MetricsEndpoint {
             return "MeasurementSample{" + "statistic=" + statistic + ", value=" + value + '}';
         }
     }
+
+    /**
+     * A percentile of a distribution and its value.
+     *
+     * @since 5.9.0
+     */
+    @Introspected
+    public static final class PercentileSample {
+
+        private final double percentile;
+
+        private final double value;
+
+        /**
+         * Percentile of a distribution.
+         *
+         * @param percentile the percentile, between 0 and 1
+         * @param value      the value at the percentile
+         */
+        PercentileSample(double percentile, double value) {
+            this.percentile = percentile;
+            this.value = value;
+        }
+
+        /**
+         * The percentile.
+         *
+         * @return the percentile, between 0 and 1
+         */
+        public double getPercentile() {
+            return percentile;
+        }
+
+        /**
+         * The value at the percentile.
+         *
+         * @return the value
+         */
+        public double getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * A histogram bucket and the number of values less than or equal to its upper bound.
+     *
+     * @since 5.9.0
+     */
+    @Introspected
+    public static final class BucketSample {
+
+        private final double bucket;
+
+        private final double count;
+
+        /**
+         * Histogram bucket.
+         *
+         * @param bucket the bucket upper bound
+         * @param count  the cumulative count
+         */
+        BucketSample(double bucket, double count) {
+            this.bucket = bucket;
+            this.count = count;
+        }
+
+        /**
+         * The bucket upper bound.
+         *
+         * @return the upper bound
+         */
+        public double getBucket() {
+            return bucket;
+        }
+
+        /**
+         * The number of values less than or equal to the upper bound.
+         *
+         * @return the cumulative count
+         */
+        public double getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * The change of a cumulative statistic over a window and its rate per second.
+     *
+     * @since 5.9.0
+     */
+    @Introspected
+    public static final class RateSample {
+
+        private final Statistic statistic;
+
+        private final String window;
+
+        private final double delta;
+
+        private final double rate;
+
+        /**
+         * Rate of a statistic.
+         *
+         * @param statistic the statistic
+         * @param window    the window
+         * @param delta     the change of the statistic
+         * @param rate      the change per second
+         */
+        RateSample(Statistic statistic, Duration window, double delta, double rate) {
+            this.statistic = statistic;
+            this.window = window.toString();
+            this.delta = delta;
+            this.rate = rate;
+        }
+
+        /**
+         * The statistic.
+         *
+         * @return the statistic
+         */
+        public Statistic getStatistic() {
+            return statistic;
+        }
+
+        /**
+         * The window, in ISO-8601 format. The change is measured from the oldest snapshot within the window.
+         *
+         * @return the window
+         */
+        public String getWindow() {
+            return window;
+        }
+
+        /**
+         * The change of the statistic.
+         *
+         * @return the change
+         */
+        public double getDelta() {
+            return delta;
+        }
+
+        /**
+         * The change of the statistic per second.
+         *
+         * @return the rate
+         */
+        public double getRate() {
+            return rate;
+        }
+    }
+
+    /**
+     * The percentiles and histogram of a metric.
+     *
+     * @param percentiles the percentiles, or null
+     * @param histogram   the cumulative histogram bucket counts, or null
+     */
+    private record Distribution(@Nullable List<PercentileSample> percentiles, @Nullable List<BucketSample> histogram) {
+
+        private static final Distribution NONE = new Distribution(null, null);
+    }
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+/**
+ * Configuration of the {@link MetricsStreamEndpoint}.
+ *
+ * @since 5.9.0
+ */
+@ConfigurationProperties(MetricsStreamConfiguration.PREFIX)
+public class MetricsStreamConfiguration {
+
+    /**
+     * The configuration prefix.
+     */
+    public static final String PREFIX = "endpoints." + MetricsStreamEndpoint.NAME;
+
+    private int maxStreams = 10;
+
+    /**
+     * Default: 10.
+     * @return The maximum number of concurrent streams. Further subscriptions are rejected with a 429 status.
+     */
+    public int getMaxStreams() {
+        return maxStreams;
+    }
+
+    /**
+     * Default: 10.
+     * @param maxStreams The maximum number of concurrent streams. Further subscriptions are rejected with a 429 status.
+     */
+    public void setMaxStreams(int maxStreams) {
+        this.maxStreams = maxStreams;
+    }
+}
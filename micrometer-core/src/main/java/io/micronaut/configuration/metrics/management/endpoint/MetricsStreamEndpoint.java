@@ -0,0 +1,151 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.management.endpoint;
+
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.bind.exceptions.UnsatisfiedArgumentException;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.exceptions.HttpStatusException;
+import io.micronaut.http.sse.Event;
+import io.micronaut.json.JsonMapper;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams the details of selected metrics as server-sent events at a fixed interval.
+ * <p>
+ * The streams sharing an interval share a single sampler. On each tick, the details of each distinct selection
+ * of metrics and tags are read and serialized once, then fanned out to the streams selecting them. The number
+ * of concurrent streams is limited by {@link MetricsStreamConfiguration#getMaxStreams()}. The endpoint is
+ * disabled by default.
+ *
+ * @since 5.9.0
+ */
+@Endpoint(value = MetricsStreamEndpoint.NAME, defaultEnabled = false, defaultSensitive = MetricsEndpoint.DEFAULT_SENSITIVE)
+@RequiresMetrics
+public class MetricsStreamEndpoint {
+
+    /**
+     * Constant for the metrics stream.
+     */
+    static final String NAME = "metricsstream";
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration MIN_INTERVAL = Duration.ofMillis(100);
+
+    private final MetricsEndpoint metricsEndpoint;
+    private final JsonMapper jsonMapper;
+    private final int maxStreams;
+    private final Map<Duration, Flux<Snapshot>> samplers = new ConcurrentHashMap<>();
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    /**
+     * @param metricsEndpoint The metrics endpoint
+     * @param jsonMapper      The JSON mapper
+     * @param configuration   The stream configuration
+     */
+    public MetricsStreamEndpoint(MetricsEndpoint metricsEndpoint, JsonMapper jsonMapper, MetricsStreamConfiguration configuration) {
+        this.metricsEndpoint = metricsEndpoint;
+        this.jsonMapper = jsonMapper;
+        this.maxStreams = configuration.getMaxStreams();
+    }
+
+    /**
+     * Streams the details of the metrics matching the names, or glob patterns, and the tags. Each event
+     * holds the JSON array of the metric details, as returned by the {@link MetricsBatchEndpoint}.
+     *
+     * @param name     the names or glob patterns of the metrics
+     * @param tag      The tags
+     * @param interval The interval between two events, 1s by default
+     * @return the stream of metric details, failing with a 429 status when too many streams are open
+     */
+    @Read(produces = MediaType.TEXT_EVENT_STREAM)
+    public Publisher<Event<String>> stream(List<String> name,
+                                           @Nullable List<String> tag,
+                                           @Nullable Duration interval) {
+        if (name == null || name.isEmpty()) {
+            throw new UnsatisfiedArgumentException(Argument.of(List.class, "name"), "At least one name is required");
+        }
+        Duration period = interval == null ? DEFAULT_INTERVAL : interval;
+        if (period.compareTo(MIN_INTERVAL) < 0) {
+            throw new UnsatisfiedArgumentException(Argument.of(Duration.class, "interval"), "Interval must be at least " + MIN_INTERVAL.toMillis() + "ms");
+        }
+        // malformed tags are rejected with a 400 status rather than failing the stream once subscribed
+        MetricsEndpoint.parseTags(tag);
+        Selection selection = new Selection(List.copyOf(name), tag == null ? Collections.emptyList() : List.copyOf(tag));
+        Flux<Snapshot> sampler = samplers.computeIfAbsent(period, this::sampler);
+        return Flux.defer(() -> {
+            // the slot is reserved when the stream is subscribed and released when it stops
+            if (activeStreams.incrementAndGet() > maxStreams) {
+                activeStreams.decrementAndGet();
+                return Flux.error(new HttpStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many metric streams"));
+            }
+            return sampler
+                    .map(snapshot -> Event.of(snapshot.details(selection)))
+                    .doFinally(signal -> activeStreams.decrementAndGet());
+        });
+    }
+
+    private Flux<Snapshot> sampler(Duration interval) {
+        AtomicReference<Flux<Snapshot>> sampler = new AtomicReference<>();
+        sampler.set(Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .map(tick -> new Snapshot())
+                // a newer sampler may already be registered for the same interval
+                .doFinally(signal -> samplers.remove(interval, sampler.get()))
+                // late subscribers get the last snapshot right away
+                .replay(1)
+                .refCount());
+        return sampler.get();
+    }
+
+    private String serialize(List<MetricsEndpoint.MetricDetails> details) {
+        try {
+            return jsonMapper.writeValueAsString(details);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Selection(List<String> names, List<String> tags) {
+    }
+
+    /**
+     * The details of the selections read on a tick, each read and serialized once, when first streamed.
+     */
+    private final class Snapshot {
+        private final Map<Selection, String> details = new ConcurrentHashMap<>();
+
+        String details(Selection selection) {
+            return details.computeIfAbsent(selection, s -> serialize(metricsEndpoint.getMetricsDetails(s.names(), s.tags())));
+        }
+    }
+}
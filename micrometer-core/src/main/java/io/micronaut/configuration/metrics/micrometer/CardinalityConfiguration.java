@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.convert.format.MapFormat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.micronaut.core.convert.format.MapFormat.MapTransformation.FLAT;
+
+/**
+ * Configuration of the guard limiting the number of tag combinations of each meter name.
+ *
+ * @since 5.9.0
+ */
+@ConfigurationProperties(CardinalityConfiguration.PREFIX)
+public class CardinalityConfiguration {
+
+    /**
+     * The configuration prefix.
+     */
+    public static final String PREFIX = MeterRegistryFactory.MICRONAUT_METRICS + "cardinality";
+
+    /**
+     * Whether the guard is enabled.
+     */
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /**
+     * What happens to the tag combinations beyond the limit.
+     */
+    public enum Action {
+        /**
+         * The meters are not registered, their recordings are dropped.
+         */
+        DENY,
+        /**
+         * The meters are registered with the value of every tag replaced by the overflow value, so their
+         * recordings are kept in a single series per meter name.
+         */
+        COLLAPSE
+    }
+
+    private boolean enabled = false;
+    private int maxTagCombinations = 1000;
+    private Map<String, Integer> limits = new HashMap<>();
+    private Action action = Action.DENY;
+    private String overflowValue = "OTHER";
+
+    /**
+     * Default: false.
+     * @return Whether the guard is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Default: false.
+     * @param enabled Whether the guard is enabled.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Default: 1000.
+     * @return The maximum number of tag combinations of a meter name without a specific limit.
+     */
+    public int getMaxTagCombinations() {
+        return maxTagCombinations;
+    }
+
+    /**
+     * Default: 1000.
+     * @param maxTagCombinations The maximum number of tag combinations of a meter name without a specific limit.
+     */
+    public void setMaxTagCombinations(int maxTagCombinations) {
+        this.maxTagCombinations = maxTagCombinations;
+    }
+
+    /**
+     * Default is empty.
+     * @return The maximum number of tag combinations by meter name, or name prefix such as {@code http.server}.
+     */
+    public Map<String, Integer> getLimits() {
+        return limits;
+    }
+
+    /**
+     * Default is empty.
+     * @param limits The maximum number of tag combinations by meter name, or name prefix such as {@code http.server}.
+     */
+    public void setLimits(@MapFormat(transformation = FLAT) Map<String, Integer> limits) {
+        this.limits = limits;
+    }
+
+    /**
+     * Default: DENY.
+     * @return What happens to the tag combinations beyond the limit.
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Default: DENY.
+     * @param action What happens to the tag combinations beyond the limit.
+     */
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    /**
+     * Default: OTHER.
+     * @return The value of the tags of the collapsed meters.
+     */
+    public String getOverflowValue() {
+        return overflowValue;
+    }
+
+    /**
+     * Default: OTHER.
+     * @param overflowValue The value of the tags of the collapsed meters.
+     */
+    public void setOverflowValue(String overflowValue) {
+        this.overflowValue = overflowValue;
+    }
+}
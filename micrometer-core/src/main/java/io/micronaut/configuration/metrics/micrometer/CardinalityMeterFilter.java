@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.order.Ordered;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of tag combinations of each meter name, so a tag with unbounded values, such as a user id,
+ * cannot exhaust the memory of the registries.
+ * <p>
+ * The combinations are tracked as 64 bits hashes in a concurrent set per meter name, only when a meter is
+ * first registered, and a slot is reserved before a combination is added so concurrent registrations cannot
+ * exceed the limit. Beyond the limit, the meters are denied or collapsed into a single overflow series. The
+ * distinct rejected combinations of each meter name, tracked up to as many as the limit, are counted by a
+ * {@value #REJECTED} counter tagged with the name. It is registered once the name reaches its limit, when the
+ * meter taking its last slot, or its overflow series, is added to a bound registry, never while filtering.
+ * The filter runs last so it sees the final tags.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class CardinalityMeterFilter implements MeterFilter, MeterBinder, Ordered {
+
+    /**
+     * The name of the counter of the rejected tag combinations.
+     */
+    static final String REJECTED = "micronaut.metrics.cardinality.rejected";
+
+    /**
+     * The tag of the rejected counter holding the meter name.
+     */
+    static final String NAME_TAG = "name";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CardinalityMeterFilter.class);
+
+    private final CardinalityConfiguration configuration;
+    private final Map<String, NameState> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration The cardinality configuration
+     */
+    CardinalityMeterFilter(CardinalityConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    @NonNull
+    public Meter.Id map(@NonNull Meter.Id id) {
+        if (REJECTED.equals(id.getName()) || id.getTags().isEmpty()) {
+            return id;
+        }
+        NameState state = states.computeIfAbsent(id.getName(), this::newState);
+        long hash = hash(id.getTags());
+        if (state.admit(hash)) {
+            return id;
+        }
+        state.reject(id.getName(), hash);
+        if (configuration.getAction() == CardinalityConfiguration.Action.COLLAPSE) {
+            List<Tag> tags = new ArrayList<>();
+            for (Tag tag : id.getTagsAsIterable()) {
+                tags.add(Tag.of(tag.getKey(), configuration.getOverflowValue()));
+            }
+            Meter.Id overflow = id.replaceTags(tags);
+            // the overflow series does not take a slot, the limit is already reached
+            state.combinations.add(hash(overflow.getTags()));
+            return overflow;
+        }
+        return id;
+    }
+
+    @Override
+    @NonNull
+    public MeterFilterReply accept(@NonNull Meter.Id id) {
+        if (id.getTags().isEmpty()) {
+            return MeterFilterReply.NEUTRAL;
+        }
+        NameState state = states.get(id.getName());
+        if (state == null || state.combinations.contains(hash(id.getTags()))) {
+            return MeterFilterReply.NEUTRAL;
+        }
+        return MeterFilterReply.DENY;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        registry.config().onMeterAdded(meter -> registerRejected(registry, meter.getId().getName()));
+        for (String name : states.keySet()) {
+            registerRejected(registry, name);
+        }
+    }
+
+    /**
+     * Registers the rejected counter of a meter name once it reached its limit. Registering an existing counter
+     * again returns it.
+     *
+     * @param registry The registry
+     * @param name The meter name
+     */
+    private void registerRejected(MeterRegistry registry, String name) {
+        NameState state = states.get(name);
+        if (state != null && state.isFull()) {
+            FunctionCounter.builder(REJECTED, state.rejected, LongAdder::doubleValue)
+                    .tag(NAME_TAG, name)
+                    .description("The number of distinct tag combinations of the meter rejected because of its limit, counted up to as many as the limit")
+                    .register(registry);
+        }
+    }
+
+    private NameState newState(String name) {
+        String limitKey = configuration.getLimits().containsKey(name) ? name : null;
+        if (limitKey == null) {
+            for (String key : configuration.getLimits().keySet()) {
+                if (name.startsWith(key) && name.charAt(key.length()) == '.' && (limitKey == null || key.length() > limitKey.length())) {
+                    limitKey = key;
+                }
+            }
+        }
+        return new NameState(limitKey == null ? configuration.getMaxTagCombinations() : configuration.getLimits().get(limitKey));
+    }
+
+    private static long hash(List<Tag> tags) {
+        long hash = 1125899906842597L;
+        for (Tag tag : tags) {
+            hash = 31 * hash + tag.getKey().hashCode();
+            hash = 31 * hash + tag.getValue().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * The tag combinations of a meter name.
+     */
+    private static final class NameState {
+        private final int limit;
+        private final AtomicInteger admitted = new AtomicInteger();
+        private final Set<Long> combinations = ConcurrentHashMap.newKeySet();
+        private final Set<Long> rejectedCombinations = ConcurrentHashMap.newKeySet();
+        private final LongAdder rejected = new LongAdder();
+        private final AtomicBoolean logged = new AtomicBoolean();
+
+        NameState(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * @return Whether all the slots are taken
+         */
+        boolean isFull() {
+            return admitted.get() >= limit;
+        }
+
+        /**
+         * @param hash The hash of the tag combination
+         * @return Whether the combination is known or a slot could be reserved for it
+         */
+        boolean admit(long hash) {
+            if (combinations.contains(hash)) {
+                return true;
+            }
+            int count;
+            do {
+                count = admitted.get();
+                if (count >= limit) {
+                    // the same combination may have been admitted concurrently
+                    return combinations.contains(hash);
+                }
+            } while (!admitted.compareAndSet(count, count + 1));
+            if (!combinations.add(hash)) {
+                // admitted concurrently, the slot is released
+                admitted.decrementAndGet();
+            }
+            return true;
+        }
+
+        /**
+         * Counts the combination if it was not rejected before. Denied meters are not cached by the registries,
+         * so the same combination is rejected again on each lookup.
+         *
+         * @param name The meter name
+         * @param hash The hash of the tag combination
+         */
+        void reject(String name, long hash) {
+            if (rejectedCombinations.size() < Math.max(limit, 1) && rejectedCombinations.add(hash)) {
+                rejected.increment();
+            }
+            if (logged.compareAndSet(false, true) && LOG.isWarnEnabled()) {
+                LOG.warn("Meter {} reached its limit of {} tag combinations, the new combinations are rejected", name, limit);
+            }
+        }
+    }
+}
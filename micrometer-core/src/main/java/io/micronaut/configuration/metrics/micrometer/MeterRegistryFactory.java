@@ -25,13 +25,21 @@ import io.micronaut.configuration.metrics.aggregator.MeterRegistryConfigurer;
 import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
 import io.micronaut.context.annotation.Bean;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.BeanRegistration;
 import io.micronaut.context.annotation.Primary;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.AnnotationUtil;
 import io.micronaut.core.annotation.TypeHint;
 import io.micronaut.core.util.CollectionUtils;
+import io.micronaut.core.util.StringUtils;
 import jakarta.inject.Singleton;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Factory for all supported MetricRegistry beans.
@@ -48,6 +56,12 @@ public class MeterRegistryFactory {
     public static final String MICRONAUT_METRICS_COMMON_TAGS = MICRONAUT_METRICS + "tags";
     public static final String MICRONAUT_METRICS_ENABLED = MICRONAUT_METRICS + "enabled";
     public static final String MICRONAUT_METRICS_EXPORT = MICRONAUT_METRICS + "export";
+    /**
+     * Whether a single registry is exposed directly as the primary registry, instead of wrapped in a composite.
+     *
+     * @since 5.9.0
+     */
+    public static final String MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY = MICRONAUT_METRICS + "unwrap-single-registry";
 
     /**
      * Create a CompositeMeterRegistry bean if metrics are enabled, true by default.
@@ -59,6 +73,7 @@ public class MeterRegistryFactory {
     @Primary
     @Singleton
     @Bean(preDestroy = "close")
+    @Requires(property = MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY, notEquals = StringUtils.TRUE)
     CompositeMeterRegistry compositeMeterRegistry(List<MeterRegistry> registries,
                                                   List<MeterRegistryConfigurer<MeterRegistry>> configurers) {
         if (CollectionUtils.isEmpty(registries)) {
@@ -67,27 +82,98 @@ public class MeterRegistryFactory {
 
         CompositeMeterRegistry compositeMeterRegistry = new CompositeMeterRegistry();
         for (MeterRegistry registry : registries) {
-            compositeMeterRegistry.add(registry);
+            //Let configurers configure individual registries
             for (MeterRegistryConfigurer<MeterRegistry> configurer : configurers) {
-                // Let configurers configure the composite registry
-                if (configurer.getType().isAssignableFrom(CompositeMeterRegistry.class) && configurer.supports(compositeMeterRegistry)) {
-                    configurer.configure(compositeMeterRegistry);
-                }
-
-                //Let configurers configure individual registries
                 if (configurer.getType().isAssignableFrom(registry.getClass()) && configurer.supports(registry)) {
                     configurer.configure(registry);
                 }
             }
+            compositeMeterRegistry.add(registry);
+        }
+
+        // Let configurers configure the composite registry, once all the registries are added
+        for (MeterRegistryConfigurer<MeterRegistry> configurer : configurers) {
+            if (configurer.getType().isAssignableFrom(CompositeMeterRegistry.class) && configurer.supports(compositeMeterRegistry)) {
+                configurer.configure(compositeMeterRegistry);
+            }
         }
 
         return compositeMeterRegistry;
     }
 
+    /**
+     * Create the primary MeterRegistry bean when a single registry is unwrapped. When there is a single
+     * registry, it is configured with the filters and binders and returned as is, so the meters are looked up
+     * and recorded without the delegation of a composite. Otherwise, or when configurers of the
+     * CompositeMeterRegistry other than the built-in one exist, a CompositeMeterRegistry is returned so that
+     * they are still applied.
+     *
+     * @param registries The registries
+     * @param configurers The configurers
+     * @return The single registry, or a CompositeMeterRegistry
+     * @since 5.9.0
+     */
+    @Primary
+    @Singleton
+    @Bean(preDestroy = "close")
+    @Requires(property = MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY, value = StringUtils.TRUE)
+    MeterRegistry singleMeterRegistry(List<MeterRegistry> registries,
+                                      List<MeterRegistryConfigurer<MeterRegistry>> configurers) {
+        if (registries.size() > 1 || configuresComposite(configurers)) {
+            return compositeMeterRegistry(registries, configurers);
+        }
+        MeterRegistry registry = registries.isEmpty() ? new SimpleMeterRegistry() : registries.get(0);
+        for (MeterRegistryConfigurer<?> configurer : configurers) {
+            if (configurer instanceof CompositeMeterRegistryConfigurer compositeConfigurer) {
+                compositeConfigurer.configureRegistry(registry);
+            } else if (configurer.getType().isAssignableFrom(registry.getClass())) {
+                @SuppressWarnings("unchecked")
+                MeterRegistryConfigurer<MeterRegistry> registryConfigurer = (MeterRegistryConfigurer<MeterRegistry>) configurer;
+                if (registryConfigurer.supports(registry)) {
+                    registryConfigurer.configure(registry);
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Whether a configurer only applies to a CompositeMeterRegistry, and cannot configure a single registry.
+     * The built-in configurer applies its filters and binders to a single registry too.
+     *
+     * @param configurers The configurers
+     * @return true if a configurer requires the composite
+     */
+    private static boolean configuresComposite(List<MeterRegistryConfigurer<MeterRegistry>> configurers) {
+        for (MeterRegistryConfigurer<?> configurer : configurers) {
+            if (!(configurer instanceof CompositeMeterRegistryConfigurer)
+                && CompositeMeterRegistry.class.isAssignableFrom(configurer.getType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the filter limiting the number of tag combinations of each meter name, if enabled. It is also
+     * a binder of the counter of the rejected registrations.
+     *
+     * @param configuration The cardinality configuration
+     * @return The cardinality filter
+     * @since 5.9.0
+     */
+    @Singleton
+    @RequiresMetrics
+    @Requires(property = CardinalityConfiguration.ENABLED, value = StringUtils.TRUE)
+    CardinalityMeterFilter cardinalityMeterFilter(CardinalityConfiguration configuration) {
+        return new CardinalityMeterFilter(configuration);
+    }
+
     /**
      * Creates a MeterRegistryConfigurer bean if the metrics are enabled, true by default.
      * <p>
-     * This bean adds the filters and binders to the metric registry.
+     * This bean adds the filters and binders to the metric registry. The filters and binders qualified with
+     * {@code @Named} are only added to the registries with that name, e.g. {@code @Named("prometheus")}.
      *
      * @param binders list of binder beans
      * @param filters list of filter beans
@@ -96,8 +182,28 @@ public class MeterRegistryFactory {
     @Primary
     @Singleton
     @RequiresMetrics
-    MeterRegistryConfigurer<CompositeMeterRegistry> meterRegistryConfigurer(Collection<MeterBinder> binders,
-                                                    Collection<MeterFilter> filters) {
-        return new CompositeMeterRegistryConfigurer(binders, filters);
+    MeterRegistryConfigurer<CompositeMeterRegistry> meterRegistryConfigurer(List<BeanRegistration<MeterBinder>> binders,
+                                                                            List<BeanRegistration<MeterFilter>> filters) {
+        Collection<MeterBinder> globalBinders = new ArrayList<>(binders.size());
+        Map<String, List<MeterBinder>> registryBinders = new LinkedHashMap<>();
+        for (BeanRegistration<MeterBinder> binder : binders) {
+            Optional<String> name = binder.getBeanDefinition().stringValue(AnnotationUtil.NAMED);
+            if (name.isPresent()) {
+                registryBinders.computeIfAbsent(name.get(), n -> new ArrayList<>()).add(binder.getBean());
+            } else {
+                globalBinders.add(binder.getBean());
+            }
+        }
+        Collection<MeterFilter> globalFilters = new ArrayList<>(filters.size());
+        Map<String, List<MeterFilter>> registryFilters = new LinkedHashMap<>();
+        for (BeanRegistration<MeterFilter> filter : filters) {
+            Optional<String> name = filter.getBeanDefinition().stringValue(AnnotationUtil.NAMED);
+            if (name.isPresent()) {
+                registryFilters.computeIfAbsent(name.get(), n -> new ArrayList<>()).add(filter.getBean());
+            } else {
+                globalFilters.add(filter.getBean());
+            }
+        }
+        return new CompositeMeterRegistryConfigurer(globalBinders, globalFilters, registryBinders, registryFilters);
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.intercept;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micronaut.aop.InterceptedMethod;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.configuration.metrics.aggregator.AbstractMethodTagger;
+import io.micronaut.configuration.metrics.annotation.MeteredPublisher;
+import io.micronaut.configuration.metrics.annotation.MetricOptions;
+import io.micronaut.configuration.metrics.annotation.RequiresMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.AnnotationMetadata;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.core.convert.ConversionService;
+import io.micronaut.core.util.StringUtils;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.observability.SignalListenerFactory;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implements support for {@link MeteredPublisher} as AOP advice.
+ *
+ * @since 5.9.0
+ */
+@Singleton
+@RequiresMetrics
+@Requires(classes = Micrometer.class)
+@InterceptorBean(MeteredPublisher.class)
+public class MeteredPublisherInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final ConversionService conversionService;
+    private final List<AbstractMethodTagger> methodTaggers;
+    private final SignalListenerFactory<Object, ?> metrics;
+
+    /**
+     * @param meterRegistry The meter registry
+     * @param conversionService The conversion service
+     * @param methodTaggers Additional tag builders
+     */
+    public MeteredPublisherInterceptor(MeterRegistry meterRegistry, ConversionService conversionService, List<AbstractMethodTagger> methodTaggers) {
+        this.conversionService = conversionService;
+        this.methodTaggers = methodTaggers;
+        metrics = Micrometer.metrics(meterRegistry);
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+        InterceptedMethod interceptedMethod = InterceptedMethod.of(context, conversionService);
+        if (interceptedMethod.resultType() != InterceptedMethod.ResultType.PUBLISHER) {
+            return context.proceed();
+        }
+        try {
+            Object interceptResult = context.proceed();
+            if (interceptResult == null) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            Publisher<Object> publisher = Publishers.convertPublisher(conversionService, interceptResult, Publisher.class);
+            String name = context.stringValue(MeteredPublisher.class).filter(StringUtils::isNotEmpty).orElse(null);
+            List<Tag> tags = tags(context);
+            Object result;
+            if (context.getReturnType().isSingleResult()) {
+                Mono<Object> mono = Mono.from(publisher);
+                if (name != null) {
+                    mono = mono.name(name);
+                }
+                for (Tag tag : tags) {
+                    mono = mono.tag(tag.getKey(), tag.getValue());
+                }
+                result = mono.tap(metrics);
+            } else {
+                Flux<Object> flux = Flux.from(publisher);
+                if (name != null) {
+                    flux = flux.name(name);
+                }
+                for (Tag tag : tags) {
+                    flux = flux.tag(tag.getKey(), tag.getValue());
+                }
+                result = flux.tap(metrics);
+            }
+            return Publishers.convertPublisher(conversionService, result, context.getReturnType().getType());
+        } catch (Exception e) {
+            return interceptedMethod.handleException(e);
+        }
+    }
+
+    private List<Tag> tags(MethodInvocationContext<Object, Object> context) {
+        AnnotationMetadata metadata = context.getAnnotationMetadata();
+        List<Tag> tags = new ArrayList<>();
+        tags.add(Tag.of("class", context.getDeclaringType().getSimpleName()));
+        tags.add(Tag.of("method", context.getMethodName()));
+        if (!methodTaggers.isEmpty()) {
+            List<Class<? extends AbstractMethodTagger>> taggers = Arrays.asList(metadata.classValues(MetricOptions.class, "taggers"));
+            boolean filter = metadata.booleanValue(MetricOptions.class, "filterTaggers").orElse(false);
+            methodTaggers.stream()
+                    .filter(t -> !filter || taggers.contains(t.getClass()))
+                    .forEach(t -> tags.addAll(t.getTags(context)));
+        }
+        Tags.of(metadata.stringValues(MeteredPublisher.class, "extraTags")).forEach(tags::add);
+        return tags;
+    }
+}
@@ -0,0 +1,124 @@
+package io.micronaut.configuration.metrics.aggregator
+
+import io.micrometer.core.instrument.Meter
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.MeterBinder
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry
+import io.micrometer.core.instrument.config.MeterFilter
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Factory
+import io.micronaut.context.annotation.Requires
+import jakarta.inject.Named
+import jakarta.inject.Singleton
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class CompositeMeterRegistryConfigurerSpec extends Specification {
+
+    void "named filters and binders are only applied to the registries with that name"() {
+        given:
+        ApplicationContext context = ApplicationContext.run(['spec.name': 'CompositeMeterRegistryConfigurerSpec'])
+        CompositeMeterRegistry composite = context.getBean(CompositeMeterRegistry)
+        SimpleMeterRegistry simple = composite.registries.find { it.class == SimpleMeterRegistry } as SimpleMeterRegistry
+        BackendMeterRegistry backend = composite.registries.find { it instanceof BackendMeterRegistry } as BackendMeterRegistry
+        RegistryFactory factory = context.getBean(RegistryFactory)
+
+        when:
+        composite.timer('expensive.timer').record(1, TimeUnit.SECONDS)
+        composite.timer('http.requests').record(1, TimeUnit.SECONDS)
+
+        then: 'the backend filters only apply to the backend registry'
+        simple.find('expensive.timer').timer()
+        !backend.find('expensive.timer').timer()
+        backend.find('http.requests').timer().takeSnapshot().histogramCounts().length > 0
+        simple.find('http.requests').timer().takeSnapshot().histogramCounts().length == 0
+
+        and: 'the backend binder only binds to the backend registry'
+        backend.find('backend.only').gauge()
+        !simple.find('backend.only').gauge()
+
+        and: 'the global binder binds once, to the composite'
+        factory.globalBinds.get() == 1
+        simple.find('global.gauge').gauge()
+        backend.find('global.gauge').gauge()
+
+        and: 'named beans matching no registry are global'
+        simple.find('orphan.gauge').gauge()
+        backend.find('orphan.gauge').gauge()
+
+        cleanup:
+        context.close()
+    }
+
+    void "registry names are derived from the class hierarchy"() {
+        expect:
+        CompositeMeterRegistryConfigurer.registryNames(registry) == names
+
+        where:
+        registry                     | names
+        new SimpleMeterRegistry()    | ['simple']
+        new BackendMeterRegistry()   | ['backend', 'simple']
+        new CompositeMeterRegistry() | ['composite']
+    }
+
+    static class BackendMeterRegistry extends SimpleMeterRegistry {
+    }
+
+    @Factory
+    @Requires(property = 'spec.name', value = 'CompositeMeterRegistryConfigurerSpec')
+    static class RegistryFactory {
+
+        final AtomicInteger globalBinds = new AtomicInteger()
+
+        @Singleton
+        SimpleMeterRegistry simpleMeterRegistry() {
+            new SimpleMeterRegistry()
+        }
+
+        @Singleton
+        BackendMeterRegistry backendMeterRegistry() {
+            new BackendMeterRegistry()
+        }
+
+        @Singleton
+        @Named('backend')
+        MeterFilter denyExpensive() {
+            MeterFilter.denyNameStartsWith('expensive')
+        }
+
+        @Singleton
+        @Named('backend')
+        MeterFilter histograms() {
+            new MeterFilter() {
+                @Override
+                DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                    DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config)
+                }
+            }
+        }
+
+        @Singleton
+        @Named('backend')
+        MeterBinder backendBinder() {
+            { MeterRegistry registry -> registry.gauge('backend.only', 1) } as MeterBinder
+        }
+
+        @Singleton
+        @Named('unknown')
+        MeterBinder orphanBinder() {
+            { MeterRegistry registry -> registry.gauge('orphan.gauge', 1) } as MeterBinder
+        }
+
+        @Singleton
+        MeterBinder globalBinder() {
+            { MeterRegistry registry ->
+                globalBinds.incrementAndGet()
+                registry.gauge('global.gauge', 1)
+            } as MeterBinder
+        }
+    }
+}
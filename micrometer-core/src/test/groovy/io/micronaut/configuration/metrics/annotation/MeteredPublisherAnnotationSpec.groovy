@@ -0,0 +1,54 @@
+package io.micronaut.configuration.metrics.annotation
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micronaut.context.ApplicationContext
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class MeteredPublisherAnnotationSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    ApplicationContext ctx = ApplicationContext.run()
+
+    void "test metered flux"() {
+        given:
+        MeteredPublisherTarget target = ctx.getBean(MeteredPublisherTarget)
+        MeterRegistry registry = ctx.getBean(MeterRegistry)
+
+        when:
+        List<Integer> result = target.range(3).collectList().block()
+
+        then:
+        result == [0, 1, 2]
+        registry.get("metered.test.flux.subscribed").tags("class", "MeteredPublisherTarget", "method", "range", "one", "two").counter().count() == 1
+        registry.get("metered.test.flux.onNext.delay").tags("method", "range").timer().count() == 3
+        registry.get("metered.test.flux.flow.duration").tags("method", "range").timer().count() == 1
+        registry.get("metered.test.flux.requested").tags("method", "range").summary().count() >= 1
+    }
+
+    void "test metered mono"() {
+        given:
+        MeteredPublisherTarget target = ctx.getBean(MeteredPublisherTarget)
+        MeterRegistry registry = ctx.getBean(MeterRegistry)
+
+        when:
+        Integer result = target.max(4, 10).block()
+
+        then:
+        result == 10
+        registry.get("metered.test.mono.subscribed").tags("method", "max").counter().count() == 1
+        registry.get("metered.test.mono.flow.duration").tags("method", "max").timer().count() == 1
+    }
+
+    void "test blocking methods are not metered"() {
+        given:
+        MeteredPublisherTarget target = ctx.getBean(MeteredPublisherTarget)
+        MeterRegistry registry = ctx.getBean(MeterRegistry)
+
+        expect:
+        target.blockingMax(4, 10) == 10
+        registry.find("metered.test.blocking.subscribed").counters().isEmpty()
+    }
+}
@@ -16,12 +16,17 @@ import jakarta.inject.Singleton
 import org.spockframework.runtime.IStandardStreamsListener
 import org.spockframework.runtime.StandardStreamsCapturer
 import spock.lang.AutoCleanup
+import spock.lang.IgnoreIf
 import spock.lang.Issue
 import spock.lang.Specification
 import spock.lang.Unroll
 import spock.util.concurrent.PollingConditions
 
+import java.util.concurrent.Callable
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
@@ -61,6 +66,112 @@ class ExecutorServiceMetricsBinderSpec extends Specification {
         context.close()
     }
 
+    void "test executor queue wait time"() {
+        when:
+        ApplicationContext context = ApplicationContext.run()
+        ExecutorService executorService = context.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.IO))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.submit({ -> } as Runnable).get()
+        executorService.submit({ -> 'done' } as Callable<String>).get()
+
+        then:
+        registry.get("executor.idle").tags("name", "io").timer().count() == 2
+        new PollingConditions(timeout: 3, delay: 0.1).eventually {
+            registry.get("executor").tags("name", "io").timer().count() == 2
+        }
+
+        cleanup:
+        context.close()
+    }
+
+    void "test scheduled tasks are not timed as queued"() {
+        when:
+        ApplicationContext context = ApplicationContext.run()
+        ScheduledExecutorService executorService = context.getBean(ScheduledExecutorService, Qualifiers.byName(TaskExecutors.SCHEDULED))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.schedule({ -> } as Runnable, 10, TimeUnit.MILLISECONDS).get()
+
+        then:
+        registry.get("executor.idle").tags("name", "scheduled").timer().count() == 0
+        new PollingConditions(timeout: 3, delay: 0.1).eventually {
+            registry.get("executor").tags("name", "scheduled").timer().count() == 1
+        }
+
+        cleanup:
+        context.close()
+    }
+
+    void "test scheduled task lag and overrun metrics"() {
+        when:
+        ApplicationContext context = ApplicationContext.run()
+        ScheduledExecutorService executorService = context.getBean(ScheduledExecutorService, Qualifiers.byName(TaskExecutors.SCHEDULED))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.schedule({ -> } as Runnable, 10, TimeUnit.MILLISECONDS).get()
+        ScheduledFuture<?> fixedRate = executorService.scheduleAtFixedRate({ -> Thread.sleep(20) } as Runnable, 0, 5, TimeUnit.MILLISECONDS)
+        ScheduledFuture<?> fixedDelay = executorService.scheduleWithFixedDelay({ -> } as Runnable, 0, 5, TimeUnit.MILLISECONDS)
+
+        then:
+        registry.get("executor.scheduled.lag").tags("name", "scheduled", "schedule", "delay").timer().count() == 1
+        new PollingConditions(timeout: 3, delay: 0.1).eventually {
+            registry.get("executor.scheduled.lag").tags("name", "scheduled", "schedule", "fixed-rate").timer().count() >= 2
+            registry.get("executor.scheduled.lag").tags("name", "scheduled", "schedule", "fixed-delay").timer().count() >= 2
+            registry.get("executor.scheduled.overrun").tags("name", "scheduled").counter().count() >= 2
+        }
+
+        cleanup:
+        fixedRate?.cancel(true)
+        fixedDelay?.cancel(true)
+        context.close()
+    }
+
+    void "test executor meter configuration"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([
+                (MICRONAUT_METRICS_BINDERS + ".executor.enabled")                     : true,
+                (MICRONAUT_METRICS_BINDERS + ".executor.executors.io.tags.team")      : "core",
+                (MICRONAUT_METRICS_BINDERS + ".executor.executors.io.percentiles")    : "0.95",
+                (MICRONAUT_METRICS_BINDERS + ".executor.executors.scheduled.enabled") : false
+        ])
+        ExecutorService executorService = context.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.IO))
+        context.getBean(ScheduledExecutorService, Qualifiers.byName(TaskExecutors.SCHEDULED))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.submit({ -> } as Runnable).get()
+
+        then:
+        registry.get("executor.idle").tags("name", "io", "team", "core").timer().count() == 1
+        registry.get("executor.pool.size").tags("name", "io", "team", "core").gauge()
+        registry.get("executor.percentile").tags("name", "io", "phi", "0.95").gauge()
+        !registry.find("executor").tags("name", "scheduled").timer()
+        !registry.find("executor.pool.size").tags("name", "scheduled").gauge()
+        context.getBeansOfType(ExecutorMeterConfig)*.name.sort() == ["io", "scheduled"]
+
+        cleanup:
+        context.close()
+    }
+
+    void "test executor task sampling"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([
+                (MICRONAUT_METRICS_BINDERS + ".executor.executors.io.sample-rate"): 0
+        ])
+        ExecutorService executorService = context.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.IO))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.submit({ -> } as Runnable).get()
+        executorService.submit({ -> } as Runnable).get()
+
+        then:
+        registry.get("executor.idle").tags("name", "io").timer().count() == 0
+        registry.get("executor").tags("name", "io").timer().count() == 0
+
+        cleanup:
+        context.close()
+    }
+
     @Issue("https://github.com/micronaut-projects/micronaut-micrometer/issues/62")
     void "test event loop group not instrumented"() {
 
@@ -101,6 +212,42 @@ class ExecutorServiceMetricsBinderSpec extends Specification {
         context.close()
     }
 
+    @IgnoreIf({ Runtime.version().feature() < 21 })
+    void "test virtual thread executor metrics"() {
+        when:
+        ApplicationContext context = ApplicationContext.run()
+        ExecutorService executorService = context.getBean(ExecutorService, Qualifiers.byName(TaskExecutors.VIRTUAL))
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        executorService.submit({ -> } as Runnable).get()
+        executorService.submit({ -> } as Runnable).get()
+
+        then:
+        registry.get("executor.submitted").tags("name", "virtual").counter().count() == 2
+        new PollingConditions(timeout: 3, delay: 0.1).eventually {
+            registry.get("executor.completed").tags("name", "virtual").counter().count() == 2
+            registry.get("executor").tags("name", "virtual").timer().count() == 2
+            registry.get("executor.active").tags("name", "virtual").gauge().value() == 0
+        }
+
+        cleanup:
+        context.close()
+    }
+
+    @IgnoreIf({ Runtime.version().feature() < 21 })
+    void "test virtual thread pinned metrics binder"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_BINDERS + ".virtual-threads.enabled"): true])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        then:
+        context.containsBean(VirtualThreadPinnedMetricsBinder)
+        registry.get("jvm.threads.virtual.pinned").timer()
+
+        cleanup:
+        context.close()
+    }
+
     @Unroll
     void "test getting the beans #cfg #setting"() {
         when:
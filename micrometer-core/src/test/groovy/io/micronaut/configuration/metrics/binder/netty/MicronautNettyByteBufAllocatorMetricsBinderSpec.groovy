@@ -16,10 +16,17 @@ import spock.util.concurrent.PollingConditions
 import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.POOLED_ALLOCATOR
 import static io.micronaut.configuration.metrics.binder.netty.ByteBufAllocatorMetricsBinder.ByteBufAllocatorMetricKind.UNPOOLED_ALLOCATOR
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ALLOC
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ARENA
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHUNK
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHUNKLIST
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DIRECT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.FRAGMENTATION
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MEMORY
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NUMBER
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.POOLED
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.USAGE
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.USED
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
@@ -107,6 +114,26 @@ class MicronautNettyByteBufAllocatorMetricsBinderSpec extends Specification {
         context.close()
     }
 
+    void "test arena chunks are aggregated when the meters are read"() {
+        when:
+        ApplicationContext context = ApplicationContext.run(
+                [MICRONAUT_METRICS_ENABLED                                        : true,
+                 (MICRONAUT_METRICS_BINDERS + ".netty.bytebuf-allocators.enabled"): true]
+        )
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        Tags arena = Tags.of(MEMORY, DIRECT).and(dot(ARENA, NUMBER), '0')
+
+        then:
+        registry.get(dot(NETTY, ALLOC, ARENA, CHUNK, COUNT)).tags(arena).gauge().value() >= 0
+        registry.get(dot(NETTY, ALLOC, ARENA, CHUNK, FRAGMENTATION)).tags(arena).gauge().value() >= 0
+        registry.get(dot(NETTY, ALLOC, ARENA, CHUNK, FRAGMENTATION)).tags(arena).gauge().value() <= 1
+        registry.get(dot(NETTY, ALLOC, ARENA, CHUNKLIST, CHUNK, COUNT)).tags(arena).gauges().size() == 6
+        registry.find(dot(NETTY, ALLOC, ARENA, CHUNK, USAGE)).meters().isEmpty()
+
+        cleanup:
+        context.close()
+    }
+
     @Client('/bytebufallocatortest')
     private static interface ByteBufAllocatorMetricTestDummyClient {
         @Get
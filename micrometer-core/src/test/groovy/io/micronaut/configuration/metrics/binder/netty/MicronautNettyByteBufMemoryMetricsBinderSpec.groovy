@@ -0,0 +1,114 @@
+package io.micronaut.configuration.metrics.binder.netty
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Tags
+import io.micronaut.context.ApplicationContext
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ALLOC
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ALLOCATION
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DEALLOCATION
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.DIRECT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.LEAK
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MAX
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.MEMORY
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SIZE
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.SMALL
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TRACED
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.UNTRACED
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.USED
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+
+class MicronautNettyByteBufMemoryMetricsBinderSpec extends Specification {
+
+    @Unroll
+    void "test getting the beans #cfg #setting"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(cfg): setting])
+
+        then:
+        context.findBean(ByteBufMemoryMetricsBinder).isPresent() == result
+
+        cleanup:
+        context.close()
+
+        where:
+        cfg                                                 | setting | result
+        MICRONAUT_METRICS_ENABLED                           | true    | false
+        MICRONAUT_METRICS_ENABLED                           | false   | false
+        MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled" | true    | true
+        MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled" | false   | false
+    }
+
+    void "test direct memory meters are present"() {
+        when:
+        ApplicationContext context = ApplicationContext.run(
+                [MICRONAUT_METRICS_ENABLED                            : true,
+                 (MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled"): true]
+        )
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        Tags smallDirect = Tags.of(MEMORY, DIRECT).and(SIZE, SMALL)
+
+        then:
+        registry.get(dot(NETTY, ALLOC, MEMORY, DIRECT, USED)).gauge()
+        registry.get(dot(NETTY, ALLOC, MEMORY, DIRECT, MAX)).gauge().value() > 0
+        registry.get(dot(NETTY, ALLOC, ALLOCATION)).tags(smallDirect).functionCounter().count() >= 0
+        registry.get(dot(NETTY, ALLOC, DEALLOCATION)).tags(smallDirect).functionCounter().count() >= 0
+
+        cleanup:
+        context.close()
+    }
+
+    void "test leaks are counted"() {
+        given:
+        ApplicationContext context = ApplicationContext.run(
+                [MICRONAUT_METRICS_ENABLED                            : true,
+                 (MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled"): true]
+        )
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        ByteBufMemoryMetricsBinder binder = context.getBean(ByteBufMemoryMetricsBinder)
+        Counter traced = registry.get(dot(NETTY, ALLOC, LEAK, COUNT)).tags(LEAK, TRACED).counter()
+        Counter untraced = registry.get(dot(NETTY, ALLOC, LEAK, COUNT)).tags(LEAK, UNTRACED).counter()
+
+        when:
+        binder.onLeak('ByteBuf', '')
+        binder.onLeak('ByteBuf', 'Created at: ...')
+        binder.onLeak('ByteBuf', 'Created at: ...')
+
+        then:
+        untraced.count() == 1
+        traced.count() == 2
+
+        cleanup:
+        context.close()
+    }
+
+    void "test the leak listener is removed when the context closes"() {
+        given:
+        Map<String, Object> properties = [MICRONAUT_METRICS_ENABLED                            : true,
+                                          (MICRONAUT_METRICS_BINDERS + ".netty.memory.enabled"): true]
+        ApplicationContext first = ApplicationContext.run(properties)
+        ApplicationContext second = ApplicationContext.run(properties)
+
+        expect:
+        ByteBufMemoryMetricsBinder.LEAK_LISTENER.get().is(second.getBean(ByteBufMemoryMetricsBinder))
+
+        when: 'a context whose listener was replaced closes'
+        first.close()
+
+        then:
+        ByteBufMemoryMetricsBinder.LEAK_LISTENER.get().is(second.getBean(ByteBufMemoryMetricsBinder))
+
+        when:
+        second.close()
+
+        then:
+        ByteBufMemoryMetricsBinder.LEAK_LISTENER.get() == null
+    }
+}
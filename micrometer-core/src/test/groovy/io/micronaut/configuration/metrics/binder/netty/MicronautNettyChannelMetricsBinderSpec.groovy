@@ -1,15 +1,21 @@
 package io.micronaut.configuration.metrics.binder.netty
 
 import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
 import io.micrometer.core.instrument.MeterRegistry
 import io.micrometer.core.instrument.Tags
 import io.micrometer.core.instrument.Timer
 import io.micrometer.core.instrument.search.RequiredSearch
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import io.micronaut.context.ApplicationContext
+import io.micronaut.context.BeanProvider
 import io.micronaut.http.annotation.Controller
 import io.micronaut.http.annotation.Get
 import io.micronaut.http.client.annotation.Client
 import io.micronaut.runtime.server.EmbeddedServer
+import io.netty.buffer.Unpooled
+import io.netty.channel.WriteBufferWaterMark
+import io.netty.channel.embedded.EmbeddedChannel
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -18,8 +24,10 @@ import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.BYTE
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CHANNEL
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.PENDING
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.READ
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TIME
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.UNWRITABLE
 import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
@@ -96,6 +104,79 @@ class MicronautNettyChannelMetricsBinderSpec extends Specification {
         context.close()
     }
 
+    void "test channel writability metrics"() {
+        given:
+        MeterRegistry registry = new SimpleMeterRegistry()
+        ChannelMetricsHandler handler = new ChannelMetricsHandler({ registry } as BeanProvider<MeterRegistry>)
+        EmbeddedChannel channel = new EmbeddedChannel()
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(8, 16))
+        channel.pipeline().addFirst(ChannelMetricsHandler.CHANNEL_METRICS, handler)
+        channel.pipeline().fireChannelRegistered()
+
+        Counter unwritableCount = registry.get(dot(NETTY, CHANNEL, COUNT)).tags(CHANNEL, UNWRITABLE).counter()
+        Timer unwritableTimer = registry.get(dot(NETTY, CHANNEL, UNWRITABLE, TIME)).timer()
+        Gauge pendingBytes = registry.get(dot(NETTY, CHANNEL, BYTE, PENDING)).gauge()
+
+        expect:
+        unwritableCount.count() == 0
+        unwritableTimer.count() == 0
+        pendingBytes.value() == 0
+
+        when:
+        channel.write(Unpooled.wrappedBuffer(new byte[32]))
+
+        then:
+        !channel.isWritable()
+        unwritableCount.count() == 1
+        unwritableTimer.count() == 0
+        pendingBytes.value() > 0
+
+        when:
+        channel.flush()
+
+        then:
+        channel.isWritable()
+        unwritableCount.count() == 1
+        unwritableTimer.count() == 1
+        pendingBytes.value() == 0
+
+        when: 'the outbound buffer is drained without a pipeline flush'
+        channel.write(Unpooled.wrappedBuffer(new byte[4]))
+
+        then:
+        pendingBytes.value() == 4
+
+        when:
+        channel.unsafe().flush()
+
+        then:
+        pendingBytes.value() == 0
+
+        cleanup:
+        channel.finishAndReleaseAll()
+    }
+
+    void "test active channel time is recorded when the channel is unregistered"() {
+        given:
+        MeterRegistry registry = new SimpleMeterRegistry()
+        ChannelMetricsHandler handler = new ChannelMetricsHandler({ registry } as BeanProvider<MeterRegistry>)
+        EmbeddedChannel channel = new EmbeddedChannel()
+        channel.pipeline().addFirst(ChannelMetricsHandler.CHANNEL_METRICS, handler)
+        channel.pipeline().fireChannelRegistered()
+        Timer activeChannelTimer = registry.get(dot(NETTY, CHANNEL, TIME)).tags(ACTIVE, TIME).timer()
+
+        expect:
+        channel.pipeline().get('active-channel-timer') == null
+        activeChannelTimer.count() == 0
+
+        when:
+        channel.close()
+        channel.runPendingTasks()
+
+        then:
+        activeChannelTimer.count() == 1
+    }
+
     @Client('/dummy')
     private static interface DummyClient {
         @Get
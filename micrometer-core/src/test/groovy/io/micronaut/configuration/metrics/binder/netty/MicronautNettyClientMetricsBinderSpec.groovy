@@ -0,0 +1,90 @@
+package io.micronaut.configuration.metrics.binder.netty
+
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Tags
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.annotation.Controller
+import io.micronaut.http.annotation.Get
+import io.micronaut.http.client.annotation.Client
+import io.micronaut.runtime.server.EmbeddedServer
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.ACTIVE
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CLIENT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CONNECT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CONNECTION
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.COUNT
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.CREATED
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.HOST
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.NETTY
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.PENDING
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.STREAM
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.TIME
+import static io.micronaut.configuration.metrics.binder.netty.NettyMetrics.dot
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+
+class MicronautNettyClientMetricsBinderSpec extends Specification {
+
+    @Unroll
+    void "test getting the beans #cfg #setting"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(cfg): setting])
+
+        then:
+        context.findBean(NettyClientMetricsPipelineBinder).isPresent() == result
+
+        cleanup:
+        context.close()
+
+        where:
+        cfg                                                 | setting | result
+        MICRONAUT_METRICS_ENABLED                           | true    | false
+        MICRONAUT_METRICS_ENABLED                           | false   | false
+        MICRONAUT_METRICS_BINDERS + ".netty.client.enabled" | true    | true
+        MICRONAUT_METRICS_BINDERS + ".netty.client.enabled" | false   | false
+    }
+
+    void "test client connection metrics meters are present"() {
+        when:
+        ApplicationContext context = ApplicationContext.run(
+                [MICRONAUT_METRICS_ENABLED                            : true,
+                 (MICRONAUT_METRICS_BINDERS + ".netty.client.enabled"): true]
+        )
+        EmbeddedServer server = context.getBean(EmbeddedServer).start()
+        DummyClient client = context.getBean(DummyClient)
+
+        then:
+        client.root() == 'root'
+        client.root() == 'root'
+
+        when:
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        Tags host = Tags.of(HOST, server.host + ':' + server.port)
+        Counter created = registry.get(dot(NETTY, CLIENT, CONNECTION, COUNT)).tags(host.and(CONNECTION, CREATED)).counter()
+
+        then:
+        created.count() > 0
+        registry.get(dot(NETTY, CLIENT, CONNECTION, ACTIVE)).tags(host).gauge().value() > 0
+        registry.get(dot(NETTY, CLIENT, CONNECTION, PENDING)).tags(host).gauge().value() == 0
+        registry.get(dot(NETTY, CLIENT, CONNECTION, CONNECT, TIME)).tags(host).timer().count() == created.count()
+        registry.get(dot(NETTY, CLIENT, CONNECTION, STREAM, COUNT)).tags(host).functionCounter().count() == 0
+
+        cleanup:
+        context.close()
+    }
+
+    @Client('/dummy-client')
+    private static interface DummyClient {
+        @Get
+        String root()
+    }
+
+    @Controller('/dummy-client')
+    private static class DummyController {
+        @Get
+        String root() { "root" }
+    }
+}
@@ -0,0 +1,82 @@
+package io.micronaut.configuration.metrics.binder.reactor
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micronaut.context.ApplicationContext
+import reactor.core.publisher.Mono
+import reactor.core.scheduler.Scheduler
+import reactor.core.scheduler.Schedulers
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_BINDERS
+
+class ReactorSchedulerMetricsBinderSpec extends Specification {
+
+    void "test reactor scheduler metrics"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_BINDERS + ".reactor.enabled"): true])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        Scheduler boundedElastic = Schedulers.newBoundedElastic(1, 10, "test-bounded-elastic")
+        Scheduler parallel = Schedulers.newParallel("test-parallel", 1)
+
+        Mono.fromCallable { 1 }.subscribeOn(boundedElastic).block()
+        Mono.fromCallable { 1 }.subscribeOn(parallel).block()
+
+        then:
+        new PollingConditions(timeout: 3, delay: 0.1).eventually {
+            registry.get("reactor.scheduler.tasks.completed").tags("name", "boundedElastic").timer().count() >= 1
+            registry.get("reactor.scheduler.tasks.completed").tags("name", "parallel").timer().count() >= 1
+        }
+
+        cleanup:
+        boundedElastic?.dispose()
+        parallel?.dispose()
+        context.close()
+    }
+
+    void "test binding and closing do not dispose the schedulers in use"() {
+        given:
+        Scheduler scheduler = Schedulers.parallel()
+        Mono.fromCallable { 1 }.subscribeOn(scheduler).block()
+
+        when:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_BINDERS + ".reactor.enabled"): true])
+        context.getBean(MeterRegistry)
+        context.close()
+
+        then:
+        !scheduler.isDisposed()
+        Mono.fromCallable { 1 }.subscribeOn(scheduler).block() == 1
+    }
+
+    void "test closing does not dispose the timed schedulers in use"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_BINDERS + ".reactor.enabled"): true])
+        context.getBean(MeterRegistry)
+        Scheduler scheduler = Schedulers.boundedElastic()
+        Mono.fromCallable { 1 }.subscribeOn(scheduler).block()
+
+        when:
+        context.close()
+
+        then:
+        !scheduler.isDisposed()
+        Mono.fromCallable { 1 }.subscribeOn(scheduler).block() == 1
+        !Schedulers.boundedElastic().is(scheduler)
+    }
+
+    void "test reactor scheduler metrics are disabled by default"() {
+        when:
+        ApplicationContext context = ApplicationContext.run()
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        Mono.fromCallable { 1 }.subscribeOn(Schedulers.boundedElastic()).block()
+
+        then:
+        !context.containsBean(ReactorSchedulerMetricsBinder)
+        !registry.find("reactor.scheduler.tasks.completed").timer()
+
+        cleanup:
+        context.close()
+    }
+}
@@ -1,5 +1,6 @@
 package io.micronaut.configuration.metrics.management.endpoint
 
+import io.micrometer.core.instrument.DistributionSummary
 import io.micrometer.core.instrument.MeterRegistry
 import io.micrometer.core.instrument.Tag
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry
@@ -18,6 +19,7 @@ import spock.lang.Unroll
 import java.lang.reflect.Type
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+import static io.micronaut.http.HttpStatus.BAD_REQUEST
 import static io.micronaut.http.HttpStatus.NOT_FOUND
 import static io.micronaut.http.HttpStatus.OK
 import static org.reflections.scanners.Scanners.SubTypes
@@ -185,6 +187,166 @@ class MetricsEndpointSpec extends Specification {
         e.status == NOT_FOUND
     }
 
+    void "test metrics endpoint names with prefix and pagination"() {
+        given:
+        run('endpoints.metrics.sensitive'          : false,
+            (MICRONAUT_METRICS_ENABLED)            : true,
+            "micronaut.metrics.binders.jvm.enabled": true)
+
+        when:
+        Map result = client.retrieve(HttpRequest.GET("/metrics?prefix=jvm.buffer."), Map)
+
+        then:
+        result.names == ["jvm.buffer.count", "jvm.buffer.memory.used", "jvm.buffer.total.capacity"]
+        !result.next
+
+        when:
+        result = client.retrieve(HttpRequest.GET("/metrics?prefix=jvm.buffer.&limit=2"), Map)
+
+        then:
+        result.names == ["jvm.buffer.count", "jvm.buffer.memory.used"]
+        result.next == "jvm.buffer.memory.used"
+
+        when:
+        result = client.retrieve(HttpRequest.GET("/metrics?prefix=jvm.buffer.&limit=2&after=$result.next"), Map)
+
+        then:
+        result.names == ["jvm.buffer.total.capacity"]
+        !result.next
+    }
+
+    void "test metrics endpoint batch read with globs and tags"() {
+        given:
+        run('endpoints.metricsbatch.sensitive'     : false,
+            (MICRONAUT_METRICS_ENABLED)            : true,
+            "micronaut.metrics.binders.jvm.enabled": true)
+
+        when:
+        List<Map> result = client.retrieve(HttpRequest.GET("/metricsbatch?name=jvm.threads.live&name=jvm.buffer.*"), List)
+
+        then:
+        result*.name == ["jvm.buffer.count", "jvm.buffer.memory.used", "jvm.buffer.total.capacity", "jvm.threads.live"]
+        result.every { it.measurements }
+
+        when:
+        result = client.retrieve(HttpRequest.GET("/metricsbatch?name=jvm.threads.live&name=jvm.buffer.%3Fount&tag=id:direct"), List)
+
+        then:
+        result*.name == ["jvm.buffer.count"]
+        !result[0].availableTags?.any { it.tag == "id" }
+
+        when:
+        client.retrieve(HttpRequest.GET("/metricsbatch"), List)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == BAD_REQUEST
+    }
+
+    void "test metrics endpoint percentiles and histogram"() {
+        given:
+        run('endpoints.metrics.sensitive': false,
+            (MICRONAUT_METRICS_ENABLED)  : true)
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        DistributionSummary a = DistributionSummary.builder("test.summary").tag("key", "a")
+                .publishPercentiles(0.5)
+                .serviceLevelObjectives(10, 100)
+                .register(registry)
+        DistributionSummary b = DistributionSummary.builder("test.summary").tag("key", "b")
+                .publishPercentiles(0.5)
+                .serviceLevelObjectives(10, 100)
+                .register(registry)
+        a.record(5)
+        a.record(50)
+        b.record(5)
+
+        when:
+        Map result = client.retrieve(HttpRequest.GET("/metrics/test.summary"), Map)
+
+        then: "the buckets are added and the percentiles estimated from them"
+        result.histogram == [[bucket: 10.0d, count: 2.0d], [bucket: 100.0d, count: 3.0d]]
+        result.percentiles == [[percentile: 0.5d, value: 7.5d]]
+
+        when:
+        result = client.retrieve(HttpRequest.GET("/metrics/test.summary?tag=key:a"), Map)
+
+        then: "the percentiles of a single meter are reported as is"
+        result.histogram == [[bucket: 10.0d, count: 1.0d], [bucket: 100.0d, count: 2.0d]]
+        result.percentiles.size() == 1
+        result.percentiles[0].percentile == 0.5d
+        result.percentiles[0].value > 0
+
+        when: "a meter has different buckets"
+        DistributionSummary.builder("test.summary").tag("key", "c")
+                .publishPercentiles(0.5)
+                .serviceLevelObjectives(1, 1000)
+                .register(registry)
+                .record(500)
+        result = client.retrieve(HttpRequest.GET("/metrics/test.summary"), Map)
+
+        then: "the histograms are not merged"
+        !result.histogram
+        !result.percentiles
+    }
+
+    void "test metrics endpoint rates and deltas"() {
+        given:
+        run('endpoints.metrics.sensitive'        : false,
+            (MICRONAUT_METRICS_ENABLED)          : true,
+            'endpoints.metrics.rates.windows'    : '1m',
+            'endpoints.metrics.rates.min-interval': '0s')
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        def counter = registry.counter("test.rated")
+
+        when:
+        Map result = client.retrieve(HttpRequest.GET("/metrics/test.rated?rates=true"), Map)
+
+        then: "no rates before a previous snapshot"
+        !result.rates
+
+        when:
+        counter.increment(10)
+        Thread.sleep(100)
+        result = client.retrieve(HttpRequest.GET("/metrics/test.rated?rates=true"), Map)
+
+        then:
+        result.rates.size() == 1
+        result.rates[0].statistic == "COUNT"
+        result.rates[0].window == "PT1M"
+        result.rates[0].delta == 10.0d
+        result.rates[0].rate > 0
+
+        when:
+        result = client.retrieve(HttpRequest.GET("/metrics/test.rated"), Map)
+
+        then: "rates are only computed on demand"
+        !result.rates
+    }
+
+    void "test metrics endpoint index follows the registry"() {
+        given:
+        run('endpoints.metrics.sensitive': false,
+            (MICRONAUT_METRICS_ENABLED)  : true)
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        when:
+        def counter = registry.counter("test.indexed", "key", "value")
+        counter.increment(2)
+        Map result = client.retrieve(HttpRequest.GET("/metrics/test.indexed?tag=key:value"), Map)
+
+        then:
+        client.retrieve(HttpRequest.GET("/metrics?prefix=test."), Map).names == ["test.indexed"]
+        result.measurements == [[statistic: "COUNT", value: 2.0d]]
+
+        when:
+        registry.remove(counter)
+        client.retrieve(HttpRequest.GET("/metrics/test.indexed"), Map)
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == NOT_FOUND
+    }
+
     @Unroll
     void "test metrics endpoint get JVM details #name disabled"() {
         given:
@@ -437,7 +599,10 @@ class MetricsEndpointSpec extends Specification {
                 MetricsEndpoint.MetricNames,
                 MetricsEndpoint.MetricDetails,
                 MetricsEndpoint.AvailableTag,
-                MetricsEndpoint.Sample
+                MetricsEndpoint.Sample,
+                MetricsEndpoint.PercentileSample,
+                MetricsEndpoint.BucketSample,
+                MetricsEndpoint.RateSample
         ]
     }
 
@@ -0,0 +1,127 @@
+package io.micronaut.configuration.metrics.management.endpoint
+
+import groovy.json.JsonSlurper
+import io.micrometer.core.instrument.MeterRegistry
+import io.micronaut.context.ApplicationContext
+import io.micronaut.http.HttpRequest
+import io.micronaut.http.HttpStatus
+import io.micronaut.http.client.HttpClient
+import io.micronaut.http.client.exceptions.HttpClientResponseException
+import io.micronaut.http.client.sse.SseClient
+import io.micronaut.http.exceptions.HttpStatusException
+import io.micronaut.http.sse.Event
+import io.micronaut.runtime.server.EmbeddedServer
+import reactor.core.Disposable
+import reactor.core.publisher.Flux
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.time.Duration
+
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+
+class MetricsStreamEndpointSpec extends Specification {
+
+    @Shared
+    @AutoCleanup
+    EmbeddedServer embeddedServer = ApplicationContext.run(EmbeddedServer, [
+            'endpoints.metricsstream.enabled'  : true,
+            'endpoints.metricsstream.sensitive': false,
+            (MICRONAUT_METRICS_ENABLED)        : true
+    ])
+
+    void "test metrics are streamed as server-sent events"() {
+        given:
+        MeterRegistry registry = embeddedServer.applicationContext.getBean(MeterRegistry)
+        registry.counter("test.streamed", "key", "value").increment()
+        SseClient client = embeddedServer.applicationContext.createBean(SseClient, embeddedServer.URL)
+
+        when:
+        List<Event<String>> events = Flux.from(client.eventStream(HttpRequest.GET("/metricsstream?name=test.stream*&tag=key:value&interval=100ms"), String))
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10))
+
+        then:
+        events.size() == 2
+        def details = new JsonSlurper().parseText(events[1].data) as List
+        details*.name == ["test.streamed"]
+        details[0].measurements == [[statistic: "COUNT", value: 1.0d]]
+
+        cleanup:
+        client.close()
+    }
+
+    void "test streams sharing an interval share the sampler"() {
+        given:
+        MetricsStreamEndpoint endpoint = embeddedServer.applicationContext.getBean(MetricsStreamEndpoint)
+        Disposable first = Flux.from(endpoint.stream(["test.shared"], null, Duration.ofSeconds(10))).subscribe()
+
+        when:
+        Event<String> second = Flux.from(endpoint.stream(["test.shared"], null, Duration.ofSeconds(10))).blockFirst(Duration.ofSeconds(5))
+        Event<String> third = Flux.from(endpoint.stream(["test.shared"], null, Duration.ofSeconds(10))).blockFirst(Duration.ofSeconds(5))
+        Event<String> other = Flux.from(endpoint.stream(["test.other"], ["key:value"], Duration.ofSeconds(10))).blockFirst(Duration.ofSeconds(5))
+
+        then: "the identical selections are serialized once per tick"
+        second.data.is(third.data)
+        other.data == "[]"
+
+        cleanup:
+        first?.dispose()
+    }
+
+    void "test malformed tags are rejected before streaming"() {
+        given:
+        HttpClient client = embeddedServer.applicationContext.createBean(HttpClient, embeddedServer.URL)
+
+        when:
+        client.toBlocking().exchange(HttpRequest.GET("/metricsstream?name=test.streamed&tag=key"))
+
+        then:
+        HttpClientResponseException e = thrown()
+        e.status == HttpStatus.BAD_REQUEST
+
+        cleanup:
+        client.close()
+    }
+
+    void "test the number of concurrent streams is limited"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'endpoints.metricsstream.enabled'    : true,
+                'endpoints.metricsstream.max-streams': 1,
+                (MICRONAUT_METRICS_ENABLED)          : true
+        ])
+        MetricsStreamEndpoint endpoint = context.getBean(MetricsStreamEndpoint)
+        Disposable first = Flux.from(endpoint.stream(["test.first"], null, Duration.ofMillis(100))).subscribe()
+
+        when:
+        Flux.from(endpoint.stream(["test.second"], null, Duration.ofMillis(100))).blockFirst(Duration.ofSeconds(5))
+
+        then:
+        HttpStatusException e = thrown()
+        e.status == HttpStatus.TOO_MANY_REQUESTS
+
+        when: "the first stream stops"
+        first.dispose()
+
+        then:
+        Flux.from(endpoint.stream(["test.second"], null, Duration.ofMillis(100))).blockFirst(Duration.ofSeconds(5))
+
+        cleanup:
+        first?.dispose()
+        context.close()
+    }
+
+    void "test the endpoint is disabled by default"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_ENABLED): true])
+
+        expect:
+        !context.containsBean(MetricsStreamEndpoint)
+
+        cleanup:
+        context.close()
+    }
+}
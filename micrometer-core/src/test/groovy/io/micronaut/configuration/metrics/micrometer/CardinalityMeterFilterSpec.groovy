@@ -0,0 +1,143 @@
+package io.micronaut.configuration.metrics.micrometer
+
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.config.MeterFilter
+import io.micronaut.context.ApplicationContext
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+class CardinalityMeterFilterSpec extends Specification {
+
+    void "the tag combinations beyond the limit are denied"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.cardinality.enabled'            : true,
+                'micronaut.metrics.cardinality.limits.user.lookups': 3
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        when:
+        (1..2).each { registry.counter('user.lookups', 'user', "$it").increment() }
+
+        then: 'the rejected counter is only registered once the limit is reached'
+        !registry.find(CardinalityMeterFilter.REJECTED).functionCounter()
+
+        when:
+        (3..5).each { registry.counter('user.lookups', 'user', "$it").increment() }
+        registry.counter('user.lookups', 'user', '5').increment()
+
+        then:
+        registry.find('user.lookups').counters().size() == 3
+        registry.find('user.lookups').counters()*.count() == [1d, 1d, 1d]
+
+        and: 'the rejected combinations are counted once per name, however often they are looked up'
+        registry.get(CardinalityMeterFilter.REJECTED).tag('name', 'user.lookups').functionCounter().count() == 2
+        registry.find(CardinalityMeterFilter.REJECTED).functionCounters()*.id*.getTag('name') == ['user.lookups']
+
+        when: 'an accepted combination is looked up again'
+        registry.counter('user.lookups', 'user', '1').increment()
+
+        then:
+        registry.get('user.lookups').tag('user', '1').counter().count() == 2
+
+        cleanup:
+        context.close()
+    }
+
+    void "the limits apply to name prefixes"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.cardinality.enabled'                  : true,
+                'micronaut.metrics.cardinality.max-tag-combinations'     : 100,
+                'micronaut.metrics.cardinality.limits.http.server'       : 2,
+                'micronaut.metrics.cardinality.limits.http.server.errors': 1
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        when:
+        (1..4).each { registry.counter('http.server.hits', 'uri', "/users/$it").increment() }
+        (1..4).each { registry.counter('http.server.errors', 'uri', "/users/$it").increment() }
+        (1..4).each { registry.counter('http.serverless', 'uri', "/users/$it").increment() }
+
+        then:
+        registry.find('http.server.hits').counters().size() == 2
+        registry.find('http.server.errors').counters().size() == 1
+        registry.find('http.serverless').counters().size() == 4
+
+        and: 'the names sharing a limit are counted apart'
+        registry.get(CardinalityMeterFilter.REJECTED).tag('name', 'http.server.hits').functionCounter().count() == 2
+        registry.get(CardinalityMeterFilter.REJECTED).tag('name', 'http.server.errors').functionCounter().count() == 1
+        !registry.find(CardinalityMeterFilter.REJECTED).tag('name', 'http.serverless').functionCounter()
+
+        cleanup:
+        context.close()
+    }
+
+    void "the tag combinations beyond the limit are collapsed"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.cardinality.enabled'            : true,
+                'micronaut.metrics.cardinality.action'             : 'collapse',
+                'micronaut.metrics.cardinality.limits.user.lookups': 2
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        when:
+        (1..5).each { registry.counter('user.lookups', 'user', "$it", 'status', '200').increment() }
+
+        then:
+        registry.find('user.lookups').counters().size() == 3
+        registry.get('user.lookups').tags('user', 'OTHER', 'status', 'OTHER').counter().count() == 3
+
+        and: 'the rejected combinations are only counted up to as many as the limit'
+        registry.get(CardinalityMeterFilter.REJECTED).tag('name', 'user.lookups').functionCounter().count() == 2
+
+        cleanup:
+        context.close()
+    }
+
+    void "concurrent registrations do not exceed the limit"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.cardinality.enabled'         : true,
+                'micronaut.metrics.cardinality.limits.user.hits': 10
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+        ExecutorService executor = Executors.newFixedThreadPool(8)
+        CountDownLatch start = new CountDownLatch(1)
+
+        when:
+        List<Future<?>> futures = (1..8).collect { thread ->
+            executor.submit {
+                start.await()
+                (1..100).each { registry.counter('user.hits', 'user', "$thread-$it").increment() }
+            }
+        }
+        start.countDown()
+        futures*.get()
+
+        then:
+        registry.find('user.hits').counters().size() == 10
+        registry.get(CardinalityMeterFilter.REJECTED).tag('name', 'user.hits').functionCounter().count() == 10
+
+        cleanup:
+        executor?.shutdownNow()
+        context.close()
+    }
+
+    void "the guard is disabled by default"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+
+        expect:
+        !context.containsBean(CardinalityMeterFilter)
+        !context.getBeansOfType(MeterFilter).any { it instanceof CardinalityMeterFilter }
+
+        cleanup:
+        context.close()
+    }
+}
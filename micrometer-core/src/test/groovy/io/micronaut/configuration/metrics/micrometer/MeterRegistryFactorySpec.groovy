@@ -1,13 +1,17 @@
 package io.micronaut.configuration.metrics.micrometer
 
+import io.micrometer.core.instrument.MeterRegistry
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import io.micronaut.configuration.metrics.aggregator.MeterRegistryConfigurer
 import io.micronaut.context.ApplicationContext
+import io.micronaut.context.annotation.Requires
+import jakarta.inject.Singleton
 import spock.lang.Specification
 import spock.lang.Unroll
 
 import static MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+import static MeterRegistryFactory.MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY
 
 class MeterRegistryFactorySpec extends Specification {
 
@@ -71,4 +75,62 @@ class MeterRegistryFactorySpec extends Specification {
         MICRONAUT_METRICS_ENABLED | false   | false
         MICRONAUT_METRICS_ENABLED | true    | true
     }
+
+    void "verify a single registry is unwrapped"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([
+                (MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY): true,
+                'micronaut.metrics.tags.app'              : 'unwrapped'
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        then:
+        registry instanceof SimpleMeterRegistry
+        !context.findBean(CompositeMeterRegistry).isPresent()
+
+        and: 'the binders and common tags are applied'
+        registry.find('jvm.memory.used').tag('app', 'unwrapped').gauge()
+
+        when:
+        registry.counter('unwrapped.counter').increment()
+
+        then:
+        registry.get('unwrapped.counter').tag('app', 'unwrapped').counter().count() == 1
+
+        cleanup:
+        context.close()
+    }
+
+    void "verify the composite is kept for the configurers of the composite"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([
+                (MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY): true,
+                'spec.name'                               : 'MeterRegistryFactorySpec'
+        ])
+        MeterRegistry registry = context.getBean(MeterRegistry)
+
+        then:
+        registry instanceof CompositeMeterRegistry
+        context.getBean(CompositeConfigurer).configured.is(registry)
+
+        cleanup:
+        context.close()
+    }
+
+    @Singleton
+    @Requires(property = 'spec.name', value = 'MeterRegistryFactorySpec')
+    static class CompositeConfigurer implements MeterRegistryConfigurer<CompositeMeterRegistry> {
+
+        CompositeMeterRegistry configured
+
+        @Override
+        void configure(CompositeMeterRegistry meterRegistry) {
+            configured = meterRegistry
+        }
+
+        @Override
+        Class<CompositeMeterRegistry> getType() {
+            CompositeMeterRegistry
+        }
+    }
 }
@@ -0,0 +1,24 @@
+package io.micronaut.configuration.metrics.annotation;
+
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Singleton
+public class MeteredPublisherTarget {
+
+    @MeteredPublisher(value = "metered.test.flux", extraTags = {"one", "two"})
+    Flux<Integer> range(int count) {
+        return Flux.range(0, count);
+    }
+
+    @MeteredPublisher("metered.test.mono")
+    Mono<Integer> max(int a, int b) {
+        return Mono.just(Math.max(a, b));
+    }
+
+    @MeteredPublisher("metered.test.blocking")
+    Integer blockingMax(int a, int b) {
+        return Math.max(a, b);
+    }
+}
@@ -15,9 +15,9 @@
  */
 package io.micronaut.configuration.metrics.micrometer.otlp;
 
-import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.registry.otlp.OtlpMeterRegistry;
 import io.micronaut.configuration.metrics.micrometer.ExportConfigurationProperties;
+import io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.util.StringUtils;
@@ -46,7 +46,7 @@ public class OtlpMeterRegistryFactory {
      */
     @Singleton
     @Requires(property = MICRONAUT_METRICS_ENABLED, notEquals = StringUtils.FALSE)
-    @Requires(beans = CompositeMeterRegistry.class)
+    @Requires(beans = MeterRegistryFactory.class)
     OtlpMeterRegistry otlpMeterRegistry(ExportConfigurationProperties exportConfigurationProperties) {
         Properties exportConfig = exportConfigurationProperties.getExport();
         return new OtlpMeterRegistry(exportConfig::getProperty, SYSTEM);
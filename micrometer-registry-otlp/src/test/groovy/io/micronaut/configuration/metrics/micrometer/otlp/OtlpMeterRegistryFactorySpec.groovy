@@ -8,6 +8,7 @@ import spock.lang.Specification
 import spock.lang.Unroll
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY
 import static io.micronaut.configuration.metrics.micrometer.otlp.OtlpMeterRegistryFactory.OTLP_ENABLED
 
 class OtlpMeterRegistryFactorySpec extends Specification {
@@ -39,6 +40,18 @@ class OtlpMeterRegistryFactorySpec extends Specification {
         context.stop()
     }
 
+    void "verify OtlpMeterRegistry is the primary registry when a single registry is unwrapped"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY): true])
+
+        then:
+        context.getBean(MeterRegistry).is(context.getBean(OtlpMeterRegistry))
+        !context.findBean(CompositeMeterRegistry).isPresent()
+
+        cleanup:
+        context.stop()
+    }
+
     @Unroll
     void "verify OtlpMeterRegistry bean exists = #result when config #cfg = #setting"() {
         when:
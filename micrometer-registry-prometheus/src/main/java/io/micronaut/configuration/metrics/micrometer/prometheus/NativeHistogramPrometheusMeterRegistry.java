@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.prometheus.metrics.core.metrics.Histogram;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import io.prometheus.metrics.tracer.common.SpanContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * A Prometheus registry publishing some timers as Prometheus native histograms, which only need a handful of
+ * series per timer, instead of a series per classic histogram bucket.
+ * <p>
+ * The selected timers are recorded into native only histograms of the Prometheus client, exposed in full by
+ * the protobuf exposition format, and never collected by Micrometer. The text formats only expose their count
+ * and sum. The recordings within a sampled span carry its trace id as exemplar.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class NativeHistogramPrometheusMeterRegistry extends PrometheusMeterRegistry {
+
+    private final Predicate<Meter.Id> nativeHistograms;
+    @Nullable
+    private final SpanContext spanContext;
+    private final Map<String, NativeHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @param config The Prometheus configuration
+     * @param prometheusRegistry The Prometheus client registry
+     * @param clock The clock
+     * @param spanContext The current span for the exemplars, if any
+     * @param nativeHistograms Selects the timers published as native histograms
+     */
+    NativeHistogramPrometheusMeterRegistry(PrometheusConfig config,
+                                           PrometheusRegistry prometheusRegistry,
+                                           Clock clock,
+                                           @Nullable SpanContext spanContext,
+                                           Predicate<Meter.Id> nativeHistograms) {
+        super(config, prometheusRegistry, clock, spanContext);
+        this.nativeHistograms = nativeHistograms;
+        this.spanContext = spanContext;
+        config().onMeterRemoved(meter -> {
+            if (meter instanceof NativeHistogramTimer timer) {
+                timer.remove();
+            }
+        });
+    }
+
+    @Override
+    protected Timer newTimer(Meter.Id id, DistributionStatisticConfig distributionStatisticConfig, PauseDetector pauseDetector) {
+        if (!nativeHistograms.test(id)) {
+            return super.newTimer(id, distributionStatisticConfig, pauseDetector);
+        }
+        String name = getConventionName(id);
+        List<Tag> tags = getConventionTags(id);
+        String[] labelNames = tags.stream().map(Tag::getKey).toArray(String[]::new);
+        String[] labelValues = tags.stream().map(Tag::getValue).toArray(String[]::new);
+        NativeHistogram histogram = histograms.computeIfAbsent(name, n -> {
+            Histogram.Builder builder = Histogram.builder()
+                    .name(n)
+                    .labelNames(labelNames)
+                    .nativeOnly();
+            if (id.getDescription() != null) {
+                builder.help(id.getDescription());
+            }
+            return new NativeHistogram(labelNames, builder.register(getPrometheusRegistry()));
+        });
+        if (!List.of(histogram.labelNames).equals(List.of(labelNames))) {
+            throw new IllegalArgumentException("Prometheus requires that all meters with the same name have the same"
+                    + " set of tag keys. There is already an existing meter named '" + id.getName() + "' containing tag keys "
+                    + String.join(", ", histogram.labelNames) + ". The meter you are attempting to register has keys "
+                    + String.join(", ", labelNames) + ".");
+        }
+        // the classic buckets and the percentiles would only be maintained for nothing
+        DistributionStatisticConfig config = DistributionStatisticConfig.builder()
+                .percentilesHistogram(false)
+                .percentiles()
+                .serviceLevelObjectives()
+                .build()
+                .merge(distributionStatisticConfig);
+        return new NativeHistogramTimer(id, clock, config, pauseDetector, histogram.histogram, labelValues, spanContext);
+    }
+
+    /**
+     * The native histogram of the timers sharing a name.
+     *
+     * @param labelNames The label names
+     * @param histogram The histogram
+     */
+    private record NativeHistogram(String[] labelNames, Histogram histogram) {
+    }
+}
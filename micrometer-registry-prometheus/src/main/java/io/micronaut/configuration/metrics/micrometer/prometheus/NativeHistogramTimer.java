@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus;
+
+import io.micrometer.core.instrument.AbstractTimer;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.distribution.TimeWindowMax;
+import io.micrometer.core.instrument.distribution.pause.PauseDetector;
+import io.micrometer.core.instrument.util.TimeUtils;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.prometheus.metrics.core.datapoints.DistributionDataPoint;
+import io.prometheus.metrics.core.metrics.Histogram;
+import io.prometheus.metrics.model.snapshots.Exemplar;
+import io.prometheus.metrics.model.snapshots.Labels;
+import io.prometheus.metrics.tracer.common.SpanContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A timer recording into a Prometheus native histogram, in seconds.
+ * <p>
+ * The exemplar sampler of the Prometheus client only knows the span context set globally on the client, so the
+ * recordings made within a sampled span pass its trace and span ids explicitly. The current span is only looked
+ * up once per {@link #EXEMPLAR_INTERVAL_NANOS sample interval}, the other recordings skip it, and the sampler
+ * still rate limits the exemplars it keeps.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class NativeHistogramTimer extends AbstractTimer {
+
+    /**
+     * The minimum time between two lookups of the current span, the default sample interval of the exemplar
+     * sampler of the Prometheus client.
+     */
+    static final long EXEMPLAR_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(90);
+
+    private final Histogram histogram;
+    private final String[] labelValues;
+    private final DistributionDataPoint dataPoint;
+    @Nullable
+    private final SpanContext spanContext;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder totalTimeNanos = new DoubleAdder();
+    private final TimeWindowMax max;
+    private final AtomicLong nextExemplarTime;
+
+    /**
+     * @param id The meter id
+     * @param clock The clock
+     * @param distributionStatisticConfig The distribution configuration
+     * @param pauseDetector The pause detector
+     * @param histogram The native histogram of the timers sharing the name
+     * @param labelValues The label values of the timer
+     * @param spanContext The current span for the exemplars, if any
+     */
+    NativeHistogramTimer(Id id,
+                         Clock clock,
+                         DistributionStatisticConfig distributionStatisticConfig,
+                         PauseDetector pauseDetector,
+                         Histogram histogram,
+                         String[] labelValues,
+                         @Nullable SpanContext spanContext) {
+        super(id, clock, distributionStatisticConfig, pauseDetector, TimeUnit.SECONDS, false);
+        this.histogram = histogram;
+        this.labelValues = labelValues;
+        this.dataPoint = histogram.labelValues(labelValues);
+        this.spanContext = spanContext;
+        this.max = new TimeWindowMax(clock, distributionStatisticConfig);
+        this.nextExemplarTime = new AtomicLong(clock.monotonicTime());
+    }
+
+    @Override
+    protected void recordNonNegative(long amount, TimeUnit unit) {
+        long nanos = unit.toNanos(amount);
+        count.increment();
+        totalTimeNanos.add(nanos);
+        max.record(nanos, TimeUnit.NANOSECONDS);
+        double seconds = nanos / 1e9;
+        if (spanContext != null && exemplarDue() && spanContext.isCurrentSpanSampled()) {
+            String traceId = spanContext.getCurrentTraceId();
+            String spanId = spanContext.getCurrentSpanId();
+            if (traceId != null && spanId != null) {
+                dataPoint.observeWithExemplar(seconds, Labels.of(Exemplar.SPAN_ID, spanId, Exemplar.TRACE_ID, traceId));
+                return;
+            }
+        }
+        dataPoint.observe(seconds);
+    }
+
+    /**
+     * Whether the current span may be looked up for an exemplar. Only one recording per sample interval wins.
+     *
+     * @return true if the sample interval has elapsed since the last lookup
+     */
+    private boolean exemplarDue() {
+        long next = nextExemplarTime.get();
+        long now = clock.monotonicTime();
+        return now - next >= 0 && nextExemplarTime.compareAndSet(next, now + EXEMPLAR_INTERVAL_NANOS);
+    }
+
+    @Override
+    public long count() {
+        return count.longValue();
+    }
+
+    @Override
+    public double totalTime(TimeUnit unit) {
+        return TimeUtils.nanosToUnit(totalTimeNanos.sum(), unit);
+    }
+
+    @Override
+    public double max(TimeUnit unit) {
+        return max.poll(unit);
+    }
+
+    /**
+     * Removes the series of the timer from the native histogram.
+     */
+    void remove() {
+        histogram.remove(labelValues);
+    }
+}
@@ -15,11 +15,22 @@
  */
 package io.micronaut.configuration.metrics.micrometer.prometheus;
 
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.configuration.metrics.binder.web.WebMetricsPublisher;
+import io.micronaut.configuration.metrics.binder.web.config.HttpClientMeterConfig;
+import io.micronaut.configuration.metrics.binder.web.config.HttpServerMeterConfig;
 import io.micronaut.configuration.metrics.micrometer.ExportConfigurationProperties;
 import io.micronaut.context.annotation.Factory;
+import io.micronaut.core.annotation.Nullable;
+import io.prometheus.metrics.model.registry.PrometheusRegistry;
+import io.prometheus.metrics.tracer.common.SpanContext;
 import jakarta.inject.Singleton;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_EXPORT;
@@ -39,11 +50,29 @@ public class PrometheusMeterRegistryFactory {
      * configuration is included in project.
      *
      * @param exportConfigurationProperties The export configuration
+     * @param serverMeterConfig The HTTP server meter configuration
+     * @param clientMeterConfig The HTTP client meter configuration
+     * @param spanContext The current span for the exemplars, when tracing is active
      * @return PrometheusMeterRegistry
      */
     @Singleton
-    PrometheusMeterRegistry prometheusConfig(ExportConfigurationProperties exportConfigurationProperties) {
+    PrometheusMeterRegistry prometheusConfig(ExportConfigurationProperties exportConfigurationProperties,
+                                             HttpServerMeterConfig serverMeterConfig,
+                                             HttpClientMeterConfig clientMeterConfig,
+                                             @Nullable SpanContext spanContext) {
         Properties exportConfig = exportConfigurationProperties.getExport();
-        return new PrometheusMeterRegistry(exportConfig::getProperty);
+        PrometheusConfig prometheusConfig = exportConfig::getProperty;
+        List<String> nativeHistograms = new ArrayList<>(2);
+        if (Boolean.TRUE.equals(serverMeterConfig.getNativeHistogram())) {
+            nativeHistograms.add(WebMetricsPublisher.METRIC_HTTP_SERVER_REQUESTS);
+        }
+        if (Boolean.TRUE.equals(clientMeterConfig.getNativeHistogram())) {
+            nativeHistograms.add(WebMetricsPublisher.METRIC_HTTP_CLIENT_REQUESTS);
+        }
+        if (nativeHistograms.isEmpty()) {
+            return new PrometheusMeterRegistry(prometheusConfig, new PrometheusRegistry(), Clock.SYSTEM, spanContext);
+        }
+        return new NativeHistogramPrometheusMeterRegistry(prometheusConfig, new PrometheusRegistry(), Clock.SYSTEM, spanContext,
+                id -> id.getType() == Meter.Type.TIMER && nativeHistograms.contains(id.getName()));
     }
 }
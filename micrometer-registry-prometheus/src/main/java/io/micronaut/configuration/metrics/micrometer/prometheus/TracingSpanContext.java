@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.prometheus.metrics.tracer.common.SpanContext;
+import jakarta.inject.Singleton;
+
+/**
+ * Exposes the current span of Micrometer Tracing to the exemplar sampler of the Prometheus registry, so the
+ * counters and histogram buckets carry the trace id of one of their sampled recordings.
+ * <p>
+ * The tracer is looked up lazily, once, since it may itself depend on the meter registry. The current span is
+ * still looked up on each call: the exemplar sampler of the Prometheus client asks for it at most once per
+ * bucket and sample interval, and the native histogram timers at most once per timer and sample interval.
+ *
+ * @since 5.9.0
+ */
+@Singleton
+@Internal
+@Requires(classes = Tracer.class)
+@Requires(beans = Tracer.class)
+final class TracingSpanContext implements SpanContext {
+
+    private final BeanProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    /**
+     * @param tracerProvider The tracer provider
+     */
+    TracingSpanContext(BeanProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public String getCurrentTraceId() {
+        Span span = currentSpan();
+        return span == null ? null : span.context().traceId();
+    }
+
+    @Override
+    public String getCurrentSpanId() {
+        Span span = currentSpan();
+        return span == null ? null : span.context().spanId();
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        Span span = currentSpan();
+        return span != null && Boolean.TRUE.equals(span.context().sampled());
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        // the sampled spans are always exported
+    }
+
+    @Nullable
+    private Span currentSpan() {
+        Tracer tracer = this.tracer;
+        if (tracer == null) {
+            // resolving the same singleton twice is harmless
+            tracer = tracerProvider.get();
+            this.tracer = tracer;
+        }
+        return tracer.currentSpan();
+    }
+}
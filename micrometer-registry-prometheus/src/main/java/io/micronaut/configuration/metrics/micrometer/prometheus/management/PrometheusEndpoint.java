@@ -16,8 +16,20 @@
 package io.micronaut.configuration.metrics.micrometer.prometheus.management;
 
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.Writable;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.management.endpoint.annotation.Endpoint;
 import io.micronaut.management.endpoint.annotation.Read;
+import jakarta.inject.Inject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Adds a management endpoint for Prometheus.
@@ -30,13 +42,61 @@ public class PrometheusEndpoint {
 
     public static final String ID = "prometheus";
 
+    /**
+     * The content type of the Prometheus text format.
+     *
+     * @since 5.9.0
+     */
+    public static final String CONTENT_TYPE_004 = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * The content type of the OpenMetrics text format, which includes exemplars.
+     *
+     * @since 5.9.0
+     */
+    public static final String CONTENT_TYPE_OPENMETRICS_100 = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    /**
+     * The content type of the Prometheus protobuf format, which includes native histograms.
+     *
+     * @since 5.9.0
+     */
+    public static final String CONTENT_TYPE_PROTOBUF = "application/vnd.google.protobuf; proto=io.prometheus.client.MetricFamily; encoding=delimited";
+
+    private static final String OPENMETRICS = "application/openmetrics-text";
+    private static final String PROTOBUF = "application/vnd.google.protobuf";
+    private static final String PROTOBUF_MESSAGE = "proto=io.prometheus.client.MetricFamily";
+
+    private static final String GZIP = "gzip";
+    private static final String NAME_PARAMETER = "name[]";
+    private static final String INCLUDED_NAMES_PARAMETER = "includedNames";
+    private static final String[] SERIES_SUFFIXES = {"_total", "_created", "_bucket", "_count", "_sum", "_info"};
+
     private final PrometheusMeterRegistry prometheusMeterRegistry;
+    @Nullable
+    private final PrometheusScrapeCache scrapeCache;
 
     /**
      * @param prometheusMeterRegistry The meter registry
+     * @deprecated Use {@link #PrometheusEndpoint(PrometheusMeterRegistry, PrometheusScrapeCacheConfiguration)} instead.
      */
+    @Deprecated(since = "5.9.0", forRemoval = true)
     public PrometheusEndpoint(PrometheusMeterRegistry prometheusMeterRegistry) {
+        this(prometheusMeterRegistry, new PrometheusScrapeCacheConfiguration());
+    }
+
+    /**
+     * @param prometheusMeterRegistry The meter registry
+     * @param scrapeCacheConfiguration The configuration of the scrape cache
+     * @since 5.9.0
+     */
+    @Inject
+    public PrometheusEndpoint(PrometheusMeterRegistry prometheusMeterRegistry,
+                              PrometheusScrapeCacheConfiguration scrapeCacheConfiguration) {
         this.prometheusMeterRegistry = prometheusMeterRegistry;
+        this.scrapeCache = scrapeCacheConfiguration.isEnabled()
+                ? new PrometheusScrapeCache(prometheusMeterRegistry, scrapeCacheConfiguration)
+                : null;
     }
 
     /**
@@ -44,8 +104,134 @@ public class PrometheusEndpoint {
      *
      * @return the data
      */
-    @Read(produces = "text/plain; version=0.0.4")
     public String scrape() {
         return prometheusMeterRegistry.scrape();
     }
+
+    /**
+     * Scrapes the data, written straight into the response rather than rendered to a string first.
+     * <p>
+     * The format is negotiated from the {@code Accept} header: the Prometheus protobuf format, the OpenMetrics
+     * text format or, by default, the Prometheus text format.
+     * <p>
+     * The {@code name[]} and {@code includedNames} query parameters restrict the scrape to the named metric
+     * families, the other ones are neither collected nor written.
+     * <p>
+     * When the scrape cache is enabled, the last rendering of the format is served until it expires, already
+     * compressed when the client accepts gzip.
+     *
+     * @param request The request
+     * @return the data
+     * @since 5.9.0
+     */
+    @Read(produces = {"text/plain; version=0.0.4", OPENMETRICS, PROTOBUF})
+    public HttpResponse<?> scrapeWritable(HttpRequest<?> request) {
+        String contentType = negotiate(request.getHeaders().get(HttpHeaders.ACCEPT));
+        Set<String> includedNames = includedNames(
+                request.getParameters().getAll(NAME_PARAMETER),
+                request.getParameters().getAll(INCLUDED_NAMES_PARAMETER)
+        );
+        if (scrapeCache == null || includedNames != null) {
+            return HttpResponse.<Writable>ok(new PrometheusScrape(prometheusMeterRegistry, contentType, includedNames))
+                    .contentType(contentType);
+        }
+        PrometheusScrapeCache.Payload payload = scrapeCache.get(contentType);
+        MutableHttpResponse<byte[]> response;
+        if (payload.gzipped() != null && acceptsGzip(request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+            response = HttpResponse.ok(payload.gzipped())
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        } else {
+            response = HttpResponse.ok(payload.bytes());
+        }
+        return response
+                .contentType(contentType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    /**
+     * Selects the exposition format the same way the Prometheus client does, regardless of the quality
+     * factors: protobuf first, then OpenMetrics.
+     *
+     * @param accept The accept header
+     * @return The content type of the exposition format
+     */
+    static String negotiate(@Nullable String accept) {
+        if (accept == null) {
+            return CONTENT_TYPE_004;
+        }
+        if (accept.contains(PROTOBUF) && accept.contains(PROTOBUF_MESSAGE)) {
+            return CONTENT_TYPE_PROTOBUF;
+        }
+        if (accept.contains(OPENMETRICS)) {
+            return CONTENT_TYPE_OPENMETRICS_100;
+        }
+        return CONTENT_TYPE_004;
+    }
+
+    /**
+     * Whether gzip is accepted: an explicit {@code gzip} coding takes precedence over the {@code *} wildcard,
+     * whatever their order, and a coding is refused by a zero quality factor. The other quality factors are
+     * ignored.
+     *
+     * @param acceptEncoding The accept encoding header
+     * @return Whether gzip is accepted
+     */
+    static boolean acceptsGzip(@Nullable String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP)) {
+                return !refused(parts);
+            } else if (name.equals("*")) {
+                wildcard = !refused(parts);
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean refused(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim().replace(" ", "");
+            if (parameter.matches("q=0(\\.0*)?")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the names of the metric families to scrape. The names may be comma separated, and the series
+     * names of a family, such as {@code http_server_requests_seconds_count}, also select the family.
+     *
+     * @param names The values of the {@code name[]} parameter
+     * @param includedNames The values of the {@code includedNames} parameter
+     * @return The names of the metric families, or null to scrape all of them
+     */
+    @Nullable
+    static Set<String> includedNames(List<String> names, List<String> includedNames) {
+        if (names.isEmpty() && includedNames.isEmpty()) {
+            return null;
+        }
+        Set<String> result = new HashSet<>();
+        for (List<String> values : List.of(names, includedNames)) {
+            for (String value : values) {
+                for (String name : value.split(",")) {
+                    name = name.trim();
+                    if (StringUtils.isNotEmpty(name)) {
+                        result.add(name);
+                        for (String suffix : SERIES_SUFFIXES) {
+                            if (name.endsWith(suffix) && name.length() > suffix.length()) {
+                                result.add(name.substring(0, name.length() - suffix.length()));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
 }
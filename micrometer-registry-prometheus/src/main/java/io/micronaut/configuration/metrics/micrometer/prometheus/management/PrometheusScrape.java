@@ -0,0 +1,73 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus.management;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.Writable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Set;
+
+/**
+ * A scrape of a Prometheus registry written straight into the response, without rendering it to a
+ * {@link String} first.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class PrometheusScrape implements Writable {
+
+    private final PrometheusMeterRegistry registry;
+    private final String contentType;
+    @Nullable
+    private final Set<String> includedNames;
+
+    /**
+     * @param registry The Prometheus registry
+     * @param contentType The content type of the exposition format
+     * @param includedNames The names of the metric families to scrape, or null for all of them
+     */
+    PrometheusScrape(PrometheusMeterRegistry registry, String contentType, @Nullable Set<String> includedNames) {
+        this.registry = registry;
+        this.contentType = contentType;
+        this.includedNames = includedNames;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream, Charset charset) throws IOException {
+        // the exposition formats are always UTF-8
+        registry.scrape(outputStream, contentType, includedNames);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException for the protobuf format, which is binary and would be corrupted by
+     * the character encoding of the writer
+     */
+    @Override
+    public void writeTo(Writer out) throws IOException {
+        if (PrometheusEndpoint.CONTENT_TYPE_PROTOBUF.equals(contentType)) {
+            throw new UnsupportedOperationException("The protobuf format is binary and can only be written to an OutputStream");
+        }
+        out.write(registry.scrape(contentType, includedNames));
+    }
+}
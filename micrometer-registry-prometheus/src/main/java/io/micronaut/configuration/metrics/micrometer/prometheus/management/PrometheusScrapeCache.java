@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus.management;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the last rendered scrape of each exposition format, and its gzip compressed form, for a time to live.
+ * Concurrent scrapes of an expired format wait for a single rendering, without blocking the scrapes of the
+ * other formats.
+ *
+ * @since 5.9.0
+ */
+@Internal
+final class PrometheusScrapeCache {
+
+    private final PrometheusMeterRegistry registry;
+    private final Clock clock;
+    private final long ttlNanos;
+    private final boolean gzip;
+    private final Map<String, Payload> payloads = new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry The Prometheus registry
+     * @param configuration The cache configuration
+     */
+    PrometheusScrapeCache(PrometheusMeterRegistry registry, PrometheusScrapeCacheConfiguration configuration) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.ttlNanos = configuration.getTtl().toNanos();
+        this.gzip = configuration.isGzip();
+    }
+
+    /**
+     * @param contentType The content type of the exposition format
+     * @return The rendered scrape, rendered again if expired
+     */
+    Payload get(String contentType) {
+        Payload payload = payloads.get(contentType);
+        if (payload != null && !payload.isExpired(clock.monotonicTime(), ttlNanos)) {
+            return payload;
+        }
+        synchronized (locks.computeIfAbsent(contentType, k -> new Object())) {
+            payload = payloads.get(contentType);
+            if (payload == null || payload.isExpired(clock.monotonicTime(), ttlNanos)) {
+                payload = render(contentType);
+                payloads.put(contentType, payload);
+            }
+            return payload;
+        }
+    }
+
+    private Payload render(String contentType) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            registry.scrape(out, contentType);
+            byte[] bytes = out.toByteArray();
+            byte[] gzipped = null;
+            if (gzip) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(compressed)) {
+                    gzipOut.write(bytes);
+                }
+                gzipped = compressed.toByteArray();
+            }
+            return new Payload(bytes, gzipped, clock.monotonicTime());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A rendered scrape.
+     *
+     * @param bytes The scrape
+     * @param gzipped The gzip compressed scrape, if compression is enabled
+     * @param renderedAt The monotonic time of the rendering
+     */
+    record Payload(byte[] bytes, @Nullable byte[] gzipped, long renderedAt) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - renderedAt >= ttlNanos;
+        }
+    }
+}
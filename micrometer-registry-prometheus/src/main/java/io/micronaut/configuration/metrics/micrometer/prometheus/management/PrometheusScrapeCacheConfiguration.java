@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus.management;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the cache of the scrapes served by the {@link PrometheusEndpoint}.
+ *
+ * @since 5.9.0
+ */
+@ConfigurationProperties(PrometheusScrapeCacheConfiguration.PREFIX)
+public class PrometheusScrapeCacheConfiguration {
+
+    /**
+     * The configuration prefix.
+     */
+    public static final String PREFIX = "endpoints." + PrometheusEndpoint.ID + ".scrape-cache";
+
+    private boolean enabled = false;
+    private Duration ttl = Duration.ofSeconds(1);
+    private boolean gzip = true;
+
+    /**
+     * Default: false.
+     * @return Whether the rendered scrapes are cached.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Default: false.
+     * @param enabled Whether the rendered scrapes are cached.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Default: 1s.
+     * @return How long a rendered scrape is served before the registry is scraped again.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Default: 1s.
+     * @param ttl How long a rendered scrape is served before the registry is scraped again.
+     */
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Default: true.
+     * @return Whether the cached scrapes are also compressed once, to be served to the clients accepting gzip.
+     */
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Default: true.
+     * @param gzip Whether the cached scrapes are also compressed once, to be served to the clients accepting gzip.
+     */
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus.pushgateway;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.micronaut.configuration.metrics.micrometer.prometheus.PrometheusMeterRegistryFactory.PROMETHEUS_CONFIG;
+
+/**
+ * Configuration of the pushes of the Prometheus metrics to a Pushgateway.
+ *
+ * @since 5.9.0
+ */
+@ConfigurationProperties(PushGatewayConfiguration.PREFIX)
+public class PushGatewayConfiguration {
+
+    /**
+     * The configuration prefix.
+     */
+    public static final String PREFIX = PROMETHEUS_CONFIG + ".pushgateway";
+
+    /**
+     * Whether the metrics are pushed.
+     */
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    private boolean enabled = false;
+    private URI url = URI.create("http://localhost:9091");
+    private String job;
+    private Map<String, String> groupingKey = new LinkedHashMap<>();
+    private Duration interval = Duration.ofMinutes(1);
+    private boolean pushOnShutdown = true;
+    private boolean deleteOnShutdown = false;
+    private boolean compressed = true;
+    private int maxRetries = 3;
+    private Duration retryDelay = Duration.ofMillis(500);
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    private String username;
+    private String password;
+
+    /**
+     * Default: false.
+     * @return Whether the metrics are pushed.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Default: false.
+     * @param enabled Whether the metrics are pushed.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Default: http://localhost:9091.
+     * @return The base URL of the Pushgateway.
+     */
+    public URI getUrl() {
+        return url;
+    }
+
+    /**
+     * Default: http://localhost:9091.
+     * @param url The base URL of the Pushgateway.
+     */
+    public void setUrl(URI url) {
+        this.url = url;
+    }
+
+    /**
+     * Default: the application name.
+     * @return The job the metrics are grouped under.
+     */
+    @Nullable
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * Default: the application name.
+     * @param job The job the metrics are grouped under.
+     */
+    public void setJob(@Nullable String job) {
+        this.job = job;
+    }
+
+    /**
+     * Default is empty.
+     * @return The labels grouping the metrics in addition to the job, such as the instance.
+     */
+    public Map<String, String> getGroupingKey() {
+        return groupingKey;
+    }
+
+    /**
+     * Default is empty.
+     * @param groupingKey The labels grouping the metrics in addition to the job, such as the instance.
+     */
+    public void setGroupingKey(Map<String, String> groupingKey) {
+        this.groupingKey = groupingKey;
+    }
+
+    /**
+     * Default: 1m.
+     * @return The interval between the pushes, zero to only push on shutdown.
+     */
+    public Duration getInterval() {
+        return interval;
+    }
+
+    /**
+     * Default: 1m.
+     * @param interval The interval between the pushes, zero to only push on shutdown.
+     */
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Default: true.
+     * @return Whether the metrics are pushed a last time on shutdown.
+     */
+    public boolean isPushOnShutdown() {
+        return pushOnShutdown;
+    }
+
+    /**
+     * Default: true.
+     * @param pushOnShutdown Whether the metrics are pushed a last time on shutdown.
+     */
+    public void setPushOnShutdown(boolean pushOnShutdown) {
+        this.pushOnShutdown = pushOnShutdown;
+    }
+
+    /**
+     * Default: false.
+     * @return Whether the metrics of the group are deleted from the Pushgateway on shutdown, instead of pushed.
+     */
+    public boolean isDeleteOnShutdown() {
+        return deleteOnShutdown;
+    }
+
+    /**
+     * Default: false.
+     * @param deleteOnShutdown Whether the metrics of the group are deleted from the Pushgateway on shutdown, instead of pushed.
+     */
+    public void setDeleteOnShutdown(boolean deleteOnShutdown) {
+        this.deleteOnShutdown = deleteOnShutdown;
+    }
+
+    /**
+     * Default: true.
+     * @return Whether the pushed metrics are gzip compressed.
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Default: true.
+     * @param compressed Whether the pushed metrics are gzip compressed.
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * Default: 3.
+     * @return The number of retries of a push failing with an I/O error, a 429 or a 5xx status.
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Default: 3.
+     * @param maxRetries The number of retries of a push failing with an I/O error, a 429 or a 5xx status.
+     */
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Default: 500ms.
+     * @return The delay before the first retry, doubled for each following retry.
+     */
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    /**
+     * Default: 500ms.
+     * @param retryDelay The delay before the first retry, doubled for each following retry.
+     */
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Default: 5s.
+     * @return The connect timeout.
+     */
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Default: 5s.
+     * @param connectTimeout The connect timeout.
+     */
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Default: 10s.
+     * @return The timeout of a push request.
+     */
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Default: 10s.
+     * @param readTimeout The timeout of a push request.
+     */
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * @return The basic authentication username.
+     */
+    @Nullable
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @param username The basic authentication username.
+     */
+    public void setUsername(@Nullable String username) {
+        this.username = username;
+    }
+
+    /**
+     * @return The basic authentication password.
+     */
+    @Nullable
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * @param password The basic authentication password.
+     */
+    public void setPassword(@Nullable String password) {
+        this.password = password;
+    }
+}
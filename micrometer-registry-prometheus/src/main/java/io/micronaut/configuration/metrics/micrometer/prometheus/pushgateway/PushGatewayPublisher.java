@@ -0,0 +1,233 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.micrometer.prometheus.pushgateway;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import io.micronaut.configuration.metrics.micrometer.prometheus.management.PrometheusEndpoint;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.annotation.Internal;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Named;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pushes the Prometheus registry to a Pushgateway at a fixed rate and on shutdown, for the jobs that do not
+ * live long enough to be scraped.
+ * <p>
+ * Each push replaces the metrics of the group of the application. The failed pushes are retried with an
+ * exponential backoff, without blocking the scheduler, and a scheduled push is skipped while the previous one
+ * is still in flight.
+ *
+ * @since 5.9.0
+ */
+@Context
+@Internal
+final class PushGatewayPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PushGatewayPublisher.class);
+    private static final String DEFAULT_JOB = "micronaut";
+
+    private final PrometheusMeterRegistry registry;
+    private final PushGatewayConfiguration configuration;
+    private final URI groupUri;
+    private final HttpClient httpClient;
+    @Nullable
+    private final ScheduledFuture<?> schedule;
+    private volatile CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+    /**
+     * @param registry The Prometheus registry
+     * @param configuration The Pushgateway configuration
+     * @param taskScheduler The scheduler of the pushes
+     * @param applicationName The application name, the default job
+     */
+    PushGatewayPublisher(PrometheusMeterRegistry registry,
+                         PushGatewayConfiguration configuration,
+                         @Named(TaskExecutors.SCHEDULED) TaskScheduler taskScheduler,
+                         @Nullable @Property(name = "micronaut.application.name") String applicationName) {
+        this.registry = registry;
+        this.configuration = configuration;
+        String job = configuration.getJob() != null ? configuration.getJob()
+                : applicationName != null ? applicationName : DEFAULT_JOB;
+        this.groupUri = groupUri(configuration.getUrl(), job, configuration.getGroupingKey());
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(configuration.getConnectTimeout())
+                .build();
+        if (configuration.getInterval().isPositive()) {
+            this.schedule = taskScheduler.scheduleAtFixedRate(configuration.getInterval(), configuration.getInterval(), this::scheduledPush);
+        } else {
+            this.schedule = null;
+        }
+    }
+
+    /**
+     * Pushes the registry, replacing the metrics of the group.
+     *
+     * @return The completion of the push, retries included
+     */
+    CompletableFuture<Void> push() {
+        byte[] body;
+        try {
+            body = render();
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> push = send(request().PUT(HttpRequest.BodyPublishers.ofByteArray(body)).build(), 0);
+        inFlight = push;
+        return push;
+    }
+
+    /**
+     * Deletes the metrics of the group.
+     *
+     * @return The completion of the deletion, retries included
+     */
+    CompletableFuture<Void> delete() {
+        return send(request().DELETE().build(), 0);
+    }
+
+    /**
+     * @return The URI of the group of the pushed metrics
+     */
+    URI getGroupUri() {
+        return groupUri;
+    }
+
+    /**
+     * Stops the scheduled pushes, then pushes the registry a last time or deletes its group.
+     */
+    @PreDestroy
+    void close() {
+        if (schedule != null) {
+            schedule.cancel(false);
+        }
+        try {
+            inFlight.exceptionally(e -> null).join();
+            if (configuration.isDeleteOnShutdown()) {
+                delete().join();
+            } else if (configuration.isPushOnShutdown()) {
+                push().join();
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to push the metrics to the Pushgateway {} on shutdown: {}", groupUri, e.getMessage());
+        }
+    }
+
+    private void scheduledPush() {
+        if (!inFlight.isDone()) {
+            LOG.debug("Skipping the push to the Pushgateway {}, the previous push is still in flight", groupUri);
+            return;
+        }
+        push().whenComplete((result, e) -> {
+            if (e != null) {
+                LOG.warn("Failed to push the metrics to the Pushgateway {}: {}", groupUri, e.getMessage());
+            }
+        });
+    }
+
+    private byte[] render() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = configuration.isCompressed() ? new GZIPOutputStream(bytes) : bytes) {
+            registry.scrape(out, PrometheusEndpoint.CONTENT_TYPE_004);
+        }
+        return bytes.toByteArray();
+    }
+
+    private HttpRequest.Builder request() {
+        HttpRequest.Builder request = HttpRequest.newBuilder(groupUri)
+                .timeout(configuration.getReadTimeout())
+                .header("Content-Type", PrometheusEndpoint.CONTENT_TYPE_004);
+        if (configuration.isCompressed()) {
+            request.header("Content-Encoding", "gzip");
+        }
+        if (configuration.getUsername() != null) {
+            String credentials = configuration.getUsername() + ':' + (configuration.getPassword() == null ? "" : configuration.getPassword());
+            request.header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        return request;
+    }
+
+    private CompletableFuture<Void> send(HttpRequest request, int attempt) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    if (error == null && response.statusCode() / 100 == 2) {
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    boolean retryable = error != null || response.statusCode() == 429 || response.statusCode() >= 500;
+                    if (retryable && attempt < configuration.getMaxRetries()) {
+                        long delay = configuration.getRetryDelay().toMillis() << attempt;
+                        LOG.debug("Retrying the {} to the Pushgateway {} in {}ms", request.method(), groupUri, delay);
+                        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                                .thenCompose(v -> send(request, attempt + 1));
+                    }
+                    return CompletableFuture.<Void>failedFuture(error != null ? error
+                            : new IOException("The Pushgateway responded to the " + request.method() + " with the status " + response.statusCode()));
+                })
+                .thenCompose(result -> result);
+    }
+
+    /**
+     * Builds the URI of a group, encoding the label values containing a slash, or empty, in base64 as the
+     * Pushgateway requires.
+     *
+     * @param url The base URL of the Pushgateway
+     * @param job The job
+     * @param groupingKey The other labels of the group
+     * @return The URI of the group
+     */
+    static URI groupUri(URI url, String job, Map<String, String> groupingKey) {
+        StringBuilder uri = new StringBuilder(url.toString());
+        if (uri.charAt(uri.length() - 1) == '/') {
+            uri.setLength(uri.length() - 1);
+        }
+        uri.append("/metrics");
+        appendLabel(uri, "job", job);
+        groupingKey.forEach((name, value) -> appendLabel(uri, name, value));
+        return URI.create(uri.toString());
+    }
+
+    private static void appendLabel(StringBuilder uri, String name, String value) {
+        uri.append('/').append(name);
+        if (value.isEmpty()) {
+            uri.append("@base64/=");
+        } else if (value.indexOf('/') >= 0) {
+            uri.append("@base64/").append(Base64.getUrlEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        } else {
+            uri.append('/').append(URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+    }
+}
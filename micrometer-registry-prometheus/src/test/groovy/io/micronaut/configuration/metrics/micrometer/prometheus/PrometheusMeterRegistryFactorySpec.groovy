@@ -1,13 +1,19 @@
 package io.micronaut.configuration.metrics.micrometer.prometheus
 
 import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry
+import io.micrometer.tracing.Span
+import io.micrometer.tracing.TraceContext
+import io.micrometer.tracing.Tracer
+import io.micronaut.configuration.metrics.micrometer.prometheus.management.PrometheusEndpoint
 import io.micronaut.context.ApplicationContext
 import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.time.Duration
+import java.util.concurrent.TimeUnit
 
 import static PrometheusMeterRegistryFactory.PROMETHEUS_CONFIG
 import static PrometheusMeterRegistryFactory.PROMETHEUS_ENABLED
@@ -101,4 +107,169 @@ class PrometheusMeterRegistryFactorySpec extends Specification {
         cleanup:
         context.stop()
     }
+
+    void "verify HTTP timers are published as native histograms"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.binders.web.server.native-histogram': true
+        ])
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+
+        when:
+        Timer.builder('http.server.requests').tags('uri', '/a', 'status', '200').register(registry).record(Duration.ofMillis(20))
+        Timer.builder('http.server.requests').tags('uri', '/b', 'status', '500').register(registry).record(Duration.ofMillis(40))
+        Timer.builder('other.timer').publishPercentileHistogram().register(registry).record(Duration.ofMillis(20))
+        Timer.builder('http.server.requests.custom').publishPercentileHistogram().register(registry).record(Duration.ofMillis(20))
+        Timer percentiles = Timer.builder('http.server.requests').tags('uri', '/c', 'status', '200').publishPercentiles(0.99).register(registry)
+        String scrape = registry.scrape()
+        def snapshot = registry.prometheusRegistry.scrape().find { it.metadata.prometheusName == 'http_server_requests_seconds' }
+
+        then:
+        registry.find('http.server.requests').tag('uri', '/a').timer().count() == 1
+        registry.find('http.server.requests').timer().totalTime(TimeUnit.MILLISECONDS) > 0
+        scrape.contains('http_server_requests_seconds_count{status="200",uri="/a"} 1')
+        !scrape.contains('http_server_requests_seconds_bucket{status="200",uri="/a",le="0.001"}')
+        scrape.contains('other_timer_seconds_bucket')
+        scrape.contains('http_server_requests_custom_seconds_bucket')
+        percentiles.takeSnapshot().percentileValues().length == 0
+        snapshot.dataPoints.size() == 3
+        snapshot.dataPoints.every { it.hasNativeHistogramData() && !it.hasClassicHistogramData() }
+
+        when:
+        registry.remove(registry.find('http.server.requests').tag('uri', '/b').timer())
+
+        then:
+        registry.prometheusRegistry.scrape().find { it.metadata.prometheusName == 'http_server_requests_seconds' }.dataPoints.size() == 2
+
+        cleanup:
+        context.stop()
+    }
+
+    void "verify native histograms are disabled by default"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+
+        when:
+        Timer.builder('http.server.requests').publishPercentileHistogram().register(registry).record(Duration.ofMillis(20))
+
+        then:
+        registry.class == PrometheusMeterRegistry
+        registry.scrape().contains('http_server_requests_seconds_bucket')
+
+        cleanup:
+        context.stop()
+    }
+
+    void "verify exemplars carry the current trace id"() {
+        given:
+        TraceContext traceContext = Stub(TraceContext) {
+            traceId() >> '4bf92f3577b34da6a3ce929d0e0e4736'
+            spanId() >> '00f067aa0ba902b7'
+            sampled() >> true
+        }
+        Span span = Stub(Span) {
+            context() >> traceContext
+        }
+        Tracer tracer = Stub(Tracer) {
+            currentSpan() >> span
+        }
+        ApplicationContext context = ApplicationContext.builder().build()
+        context.registerSingleton(Tracer, tracer)
+        context.start()
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+
+        when:
+        registry.counter('traced.requests').increment()
+        Timer.builder('traced.latency').publishPercentileHistogram().register(registry).record(Duration.ofMillis(20))
+        String scrape = registry.scrape(PrometheusEndpoint.CONTENT_TYPE_OPENMETRICS_100)
+
+        then:
+        scrape.find(/traced_requests_total 1.0 # \{span_id="00f067aa0ba902b7",trace_id="4bf92f3577b34da6a3ce929d0e0e4736"} 1.0.*/)
+        scrape.find(/traced_latency_seconds_bucket\{le="[0-9.]+"} [0-9.]+ # \{span_id="00f067aa0ba902b7",trace_id="4bf92f3577b34da6a3ce929d0e0e4736"} 0.02.*/)
+
+        cleanup:
+        context.stop()
+    }
+
+    void "verify native histograms carry the current trace id"() {
+        given:
+        TraceContext traceContext = Stub(TraceContext) {
+            traceId() >> '4bf92f3577b34da6a3ce929d0e0e4736'
+            spanId() >> '00f067aa0ba902b7'
+            sampled() >> true
+        }
+        Span span = Stub(Span) {
+            context() >> traceContext
+        }
+        Tracer tracer = Stub(Tracer) {
+            currentSpan() >> span
+        }
+        ApplicationContext context = ApplicationContext.builder()
+                .properties('micronaut.metrics.binders.web.server.native-histogram': true)
+                .build()
+        context.registerSingleton(Tracer, tracer)
+        context.start()
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+
+        when:
+        Timer.builder('http.server.requests').tags('uri', '/a').register(registry).record(Duration.ofMillis(20))
+        def snapshot = registry.prometheusRegistry.scrape().find { it.metadata.prometheusName == 'http_server_requests_seconds' }
+
+        then:
+        snapshot.dataPoints[0].exemplars.collect { it.labels.get('trace_id') } == ['4bf92f3577b34da6a3ce929d0e0e4736']
+
+        cleanup:
+        context.stop()
+    }
+
+    void "verify native histograms do not look up the current span on every recording"() {
+        given:
+        TraceContext traceContext = Stub(TraceContext) {
+            traceId() >> '4bf92f3577b34da6a3ce929d0e0e4736'
+            spanId() >> '00f067aa0ba902b7'
+            sampled() >> true
+        }
+        Span span = Stub(Span) {
+            context() >> traceContext
+        }
+        int lookups = 0
+        Tracer tracer = Stub(Tracer) {
+            currentSpan() >> { lookups++; span }
+        }
+        ApplicationContext context = ApplicationContext.builder()
+                .properties('micronaut.metrics.binders.web.server.native-histogram': true)
+                .build()
+        context.registerSingleton(Tracer, tracer)
+        context.start()
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+        Timer timer = Timer.builder('http.server.requests').tags('uri', '/a').register(registry)
+
+        when:
+        1000.times { timer.record(Duration.ofMillis(20)) }
+
+        then:
+        timer.count() == 1000
+        lookups > 0
+        lookups < 100
+
+        cleanup:
+        context.stop()
+    }
+
+    void "verify exemplars are not recorded without tracing"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+
+        when:
+        registry.counter('untraced.requests').increment()
+
+        then:
+        !context.containsBean(TracingSpanContext)
+        !registry.scrape(PrometheusEndpoint.CONTENT_TYPE_OPENMETRICS_100).contains('trace_id')
+
+        cleanup:
+        context.stop()
+    }
 }
@@ -1,6 +1,9 @@
 package io.micronaut.configuration.metrics.micrometer.prometheus.management
 
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry
 import io.micronaut.context.ApplicationContext
+import io.micronaut.http.HttpHeaders
+import io.micronaut.http.HttpRequest
 import io.micronaut.http.client.HttpClient
 import io.micronaut.runtime.server.EmbeddedServer
 import spock.lang.AutoCleanup
@@ -8,6 +11,9 @@ import spock.lang.Ignore
 import spock.lang.Shared
 import spock.lang.Specification
 
+import java.nio.charset.StandardCharsets
+import java.util.zip.GZIPInputStream
+
 class PrometheusEndpointSpec extends Specification {
 
     @Shared
@@ -26,6 +32,192 @@ class PrometheusEndpointSpec extends Specification {
         client.toBlocking().retrieve('/prometheus').contains('jvm_memory_used')
     }
 
+    void "test prometheus scrape content type"() {
+        when:
+        def response = client.toBlocking().exchange('/prometheus', String)
+
+        then:
+        response.contentType.get().name == 'text/plain'
+        response.contentType.get().parameters.get('version').get() == '0.0.4'
+        response.body().contains('# TYPE jvm_memory_used_bytes gauge')
+    }
+
+    void "test prometheus scrape matches the registry"() {
+        given:
+        PrometheusMeterRegistry registry = embeddedServer.applicationContext.getBean(PrometheusMeterRegistry)
+        registry.counter("test.scraped").increment()
+
+        expect:
+        client.toBlocking().retrieve('/prometheus').contains('test_scraped_total 1.0')
+    }
+
+    void "test prometheus scrape in OpenMetrics format"() {
+        when:
+        def response = client.toBlocking().exchange(HttpRequest.GET('/prometheus')
+                .header(HttpHeaders.ACCEPT, 'application/openmetrics-text; version=1.0.0,text/plain; version=0.0.4; q=0.5'), String)
+
+        then:
+        response.contentType.get().name == 'application/openmetrics-text'
+        response.body().contains('jvm_memory_used_bytes')
+        response.body().trim().endsWith('# EOF')
+    }
+
+    void "test prometheus scrape in protobuf format"() {
+        when:
+        def response = client.toBlocking().exchange(HttpRequest.GET('/prometheus')
+                .header(HttpHeaders.ACCEPT, PrometheusEndpoint.CONTENT_TYPE_PROTOBUF + ';q=0.7,text/plain;version=0.0.4;q=0.3'), byte[])
+
+        then:
+        response.contentType.get().name == 'application/vnd.google.protobuf'
+        response.contentType.get().parameters.get('proto').get() == 'io.prometheus.client.MetricFamily'
+        metricFamilyNames(response.body()).contains('jvm_memory_used_bytes')
+    }
+
+    void "test prometheus protobuf scrape is not written as characters"() {
+        given:
+        PrometheusMeterRegistry registry = embeddedServer.applicationContext.getBean(PrometheusMeterRegistry)
+        PrometheusScrape scrape = new PrometheusScrape(registry, PrometheusEndpoint.CONTENT_TYPE_PROTOBUF, null)
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream()
+
+        when:
+        scrape.writeTo(bytes, StandardCharsets.UTF_8)
+
+        then:
+        metricFamilyNames(bytes.toByteArray()).contains('jvm_memory_used_bytes')
+
+        when:
+        scrape.writeTo(new StringWriter())
+
+        then:
+        thrown(UnsupportedOperationException)
+    }
+
+    void "test prometheus format negotiation"() {
+        expect:
+        PrometheusEndpoint.negotiate(accept) == contentType
+
+        where:
+        accept                                                        | contentType
+        null                                                          | PrometheusEndpoint.CONTENT_TYPE_004
+        '*/*'                                                         | PrometheusEndpoint.CONTENT_TYPE_004
+        'text/plain'                                                  | PrometheusEndpoint.CONTENT_TYPE_004
+        'application/openmetrics-text;version=1.0.0'                  | PrometheusEndpoint.CONTENT_TYPE_OPENMETRICS_100
+        'application/vnd.google.protobuf'                             | PrometheusEndpoint.CONTENT_TYPE_004
+        PrometheusEndpoint.CONTENT_TYPE_PROTOBUF + ',*/*;q=0.1'       | PrometheusEndpoint.CONTENT_TYPE_PROTOBUF
+    }
+
+    void "test prometheus scrape filtered by name"() {
+        given:
+        PrometheusMeterRegistry registry = embeddedServer.applicationContext.getBean(PrometheusMeterRegistry)
+        registry.counter("test.filtered").increment()
+        registry.counter("test.other").increment()
+
+        when:
+        def byName = client.toBlocking().retrieve('/prometheus?name%5B%5D=test_filtered_total&name%5B%5D=jvm_threads_live_threads')
+
+        then:
+        byName.contains('test_filtered_total 1.0')
+        byName.contains('jvm_threads_live_threads')
+        !byName.contains('test_other')
+        !byName.contains('jvm_memory_used')
+
+        when:
+        def byIncludedNames = client.toBlocking().retrieve('/prometheus?includedNames=test_other,test_filtered')
+
+        then:
+        byIncludedNames.contains('test_filtered_total 1.0')
+        byIncludedNames.contains('test_other_total 1.0')
+        !byIncludedNames.contains('jvm_memory_used')
+    }
+
+    void "test prometheus included names"() {
+        expect:
+        PrometheusEndpoint.includedNames(names, includedNames) == expected as Set
+
+        where:
+        names                                     | includedNames   | expected
+        []                                        | []              | null
+        ['']                                      | []              | null
+        ['jvm_threads_live_threads']              | []              | ['jvm_threads_live_threads']
+        ['http_server_requests_seconds_count']    | ['a, b']        | ['http_server_requests_seconds_count', 'http_server_requests_seconds', 'a', 'b']
+        []                                        | ['c_total']     | ['c_total', 'c']
+    }
+
+    void "test prometheus scrape cache"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'endpoints.prometheus.scrape-cache.enabled': true,
+                'endpoints.prometheus.scrape-cache.ttl'    : '1h'
+        ])
+        PrometheusMeterRegistry registry = context.getBean(PrometheusMeterRegistry)
+        PrometheusEndpoint endpoint = context.getBean(PrometheusEndpoint)
+        def request = HttpRequest.GET('/prometheus')
+
+        when:
+        registry.counter("test.cached").increment()
+        def first = endpoint.scrapeWritable(request)
+        registry.counter("test.cached").increment()
+        def second = endpoint.scrapeWritable(request)
+
+        then:
+        new String((byte[]) first.body()).contains('test_cached_total 1.0')
+        second.body().is(first.body())
+        second.header(HttpHeaders.CONTENT_ENCODING) == null
+        second.header(HttpHeaders.VARY) == 'Accept, Accept-Encoding'
+
+        when:
+        def gzipped = endpoint.scrapeWritable(HttpRequest.GET('/prometheus').header(HttpHeaders.ACCEPT_ENCODING, 'gzip, deflate'))
+
+        then:
+        gzipped.header(HttpHeaders.CONTENT_ENCODING) == 'gzip'
+        new GZIPInputStream(new ByteArrayInputStream((byte[]) gzipped.body())).bytes == first.body()
+
+        when:
+        def openMetrics = endpoint.scrapeWritable(HttpRequest.GET('/prometheus').header(HttpHeaders.ACCEPT, 'application/openmetrics-text'))
+
+        then:
+        openMetrics.contentType.get().name == 'application/openmetrics-text'
+        new String((byte[]) openMetrics.body()).contains('test_cached_total 2.0')
+
+        cleanup:
+        context.close()
+    }
+
+    void "test prometheus scrape cache served over http"() {
+        given:
+        EmbeddedServer server = ApplicationContext.run(EmbeddedServer, [
+                'endpoints.prometheus.sensitive'           : false,
+                'endpoints.prometheus.scrape-cache.enabled': true
+        ])
+        HttpClient httpClient = server.applicationContext.createBean(HttpClient, server.URL)
+
+        expect:
+        httpClient.toBlocking().retrieve(HttpRequest.GET('/prometheus')
+                .header(HttpHeaders.ACCEPT_ENCODING, 'gzip')).contains('jvm_memory_used')
+
+        cleanup:
+        httpClient.close()
+        server.close()
+    }
+
+    void "test prometheus accepted encodings"() {
+        expect:
+        PrometheusEndpoint.acceptsGzip(acceptEncoding) == accepted
+
+        where:
+        acceptEncoding          | accepted
+        null                    | false
+        'identity'              | false
+        'gzip'                  | true
+        'deflate, GZIP;q=0.5'   | true
+        'gzip;q=0'              | false
+        'gzip; q=0.0, br'       | false
+        '*'                     | true
+        '*;q=0.5, gzip;q=0'     | false
+        'gzip;q=0.5, *;q=0'     | true
+        'br, *;q=0'             | false
+    }
+
     @Ignore
     void "test prometheus scrape no descriptions"() {
         given:
@@ -35,4 +227,33 @@ class PrometheusEndpointSpec extends Specification {
         result.contains('jvm_memory_used')
         !result.contains('# TYPE')
     }
+
+    /**
+     * Reads the names of the length delimited MetricFamily messages, whose first field is the name.
+     */
+    private static List<String> metricFamilyNames(byte[] body) {
+        List<String> names = []
+        ByteArrayInputStream input = new ByteArrayInputStream(body)
+        while (input.available() > 0) {
+            int length = readVarint(input)
+            byte[] message = input.readNBytes(length)
+            assert message.length == length
+            ByteArrayInputStream fields = new ByteArrayInputStream(message)
+            assert fields.read() == 0x0A
+            names << new String(fields.readNBytes(readVarint(fields)), StandardCharsets.UTF_8)
+        }
+        names
+    }
+
+    private static int readVarint(InputStream input) {
+        int value = 0
+        for (int shift = 0; ; shift += 7) {
+            int b = input.read()
+            assert b >= 0
+            value |= (b & 0x7F) << shift
+            if ((b & 0x80) == 0) {
+                return value
+            }
+        }
+    }
 }
@@ -0,0 +1,178 @@
+package io.micronaut.configuration.metrics.micrometer.prometheus.pushgateway
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry
+import io.micronaut.context.ApplicationContext
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPInputStream
+
+class PushGatewayPublisherSpec extends Specification {
+
+    Queue<Push> pushes = new ConcurrentLinkedQueue<>()
+    AtomicInteger failures = new AtomicInteger()
+
+    @AutoCleanup('stop')
+    HttpServer pushGateway = startPushGateway()
+
+    void "pushes the registry on shutdown"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.application.name'                                          : 'batch',
+                'micronaut.metrics.export.prometheus.pushgateway.enabled'             : true,
+                'micronaut.metrics.export.prometheus.pushgateway.url'                 : url(),
+                'micronaut.metrics.export.prometheus.pushgateway.grouping-key.instance': 'a',
+                'micronaut.metrics.export.prometheus.pushgateway.interval'            : '1h'
+        ])
+        context.getBean(PrometheusMeterRegistry).counter('batch.processed').increment(3)
+
+        expect:
+        pushes.empty
+
+        when:
+        context.close()
+
+        then:
+        pushes.size() == 1
+        with(pushes.peek()) {
+            method == 'PUT'
+            path == '/metrics/job/batch/instance/a'
+            contentEncoding == 'gzip'
+            contentType.startsWith('text/plain; version=0.0.4')
+            body.contains('batch_processed_total 3.0')
+        }
+    }
+
+    void "pushes the registry on a schedule"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.export.prometheus.pushgateway.enabled'         : true,
+                'micronaut.metrics.export.prometheus.pushgateway.url'             : url(),
+                'micronaut.metrics.export.prometheus.pushgateway.job'             : 'scheduled',
+                'micronaut.metrics.export.prometheus.pushgateway.interval'        : '100ms',
+                'micronaut.metrics.export.prometheus.pushgateway.compressed'      : false,
+                'micronaut.metrics.export.prometheus.pushgateway.push-on-shutdown': false
+        ])
+
+        expect:
+        new PollingConditions(timeout: 5).eventually {
+            pushes.size() >= 2
+        }
+        pushes.every { it.path == '/metrics/job/scheduled' && it.contentEncoding == null && it.body.contains('jvm_') }
+
+        cleanup:
+        context.close()
+    }
+
+    void "retries the failed pushes"() {
+        given:
+        failures.set(2)
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.export.prometheus.pushgateway.enabled'    : true,
+                'micronaut.metrics.export.prometheus.pushgateway.url'        : url(),
+                'micronaut.metrics.export.prometheus.pushgateway.interval'   : '0s',
+                'micronaut.metrics.export.prometheus.pushgateway.retry-delay': '10ms'
+        ])
+
+        when:
+        context.getBean(PushGatewayPublisher).push().join()
+
+        then:
+        pushes.size() == 3
+        failures.get() == 0
+
+        when:
+        failures.set(5)
+        context.getBean(PushGatewayPublisher).push().join()
+
+        then:
+        thrown(Exception)
+        pushes.size() == 7
+
+        cleanup:
+        failures.set(0)
+        context.close()
+    }
+
+    void "deletes the group on shutdown"() {
+        given:
+        ApplicationContext context = ApplicationContext.run([
+                'micronaut.metrics.export.prometheus.pushgateway.enabled'           : true,
+                'micronaut.metrics.export.prometheus.pushgateway.url'               : url(),
+                'micronaut.metrics.export.prometheus.pushgateway.delete-on-shutdown': true,
+                'micronaut.metrics.export.prometheus.pushgateway.username'          : 'user',
+                'micronaut.metrics.export.prometheus.pushgateway.password'          : 'secret'
+        ])
+
+        when:
+        context.close()
+
+        then:
+        pushes.size() == 1
+        pushes.peek().method == 'DELETE'
+        pushes.peek().path == '/metrics/job/micronaut'
+        pushes.peek().authorization == 'Basic ' + 'user:secret'.bytes.encodeBase64().toString()
+    }
+
+    void "is disabled by default"() {
+        given:
+        ApplicationContext context = ApplicationContext.run()
+
+        expect:
+        !context.containsBean(PushGatewayPublisher)
+
+        cleanup:
+        context.close()
+    }
+
+    void "encodes the grouping key"() {
+        expect:
+        PushGatewayPublisher.groupUri(URI.create(url), job, groupingKey).toString() == expected
+
+        where:
+        url                     | job        | groupingKey             | expected
+        'http://gateway:9091'   | 'batch'    | [:]                     | 'http://gateway:9091/metrics/job/batch'
+        'http://gateway:9091/'  | 'my job'   | [instance: 'a']         | 'http://gateway:9091/metrics/job/my%20job/instance/a'
+        'http://gateway:9091'   | 'batch'    | [path: '/var/tmp']      | 'http://gateway:9091/metrics/job/batch/path@base64/L3Zhci90bXA='
+        'http://gateway:9091'   | 'batch'    | [instance: '']          | 'http://gateway:9091/metrics/job/batch/instance@base64/='
+    }
+
+    private String url() {
+        "http://localhost:${pushGateway.address.port}"
+    }
+
+    private HttpServer startPushGateway() {
+        HttpServer server = HttpServer.create(new InetSocketAddress('localhost', 0), 0)
+        server.createContext('/metrics') { HttpExchange exchange ->
+            byte[] body = exchange.requestBody.bytes
+            String encoding = exchange.requestHeaders.getFirst('Content-Encoding')
+            pushes << new Push(
+                    method: exchange.requestMethod,
+                    path: exchange.requestURI.rawPath,
+                    contentType: exchange.requestHeaders.getFirst('Content-Type'),
+                    contentEncoding: encoding,
+                    authorization: exchange.requestHeaders.getFirst('Authorization'),
+                    body: encoding == 'gzip' ? new GZIPInputStream(new ByteArrayInputStream(body)).text : new String(body)
+            )
+            int status = failures.getAndUpdate { it > 0 ? it - 1 : 0 } > 0 ? 503 : 200
+            exchange.sendResponseHeaders(status, -1)
+            exchange.close()
+        }
+        server.start()
+        server
+    }
+
+    static class Push {
+        String method
+        String path
+        String contentType
+        String contentEncoding
+        String authorization
+        String body
+    }
+}
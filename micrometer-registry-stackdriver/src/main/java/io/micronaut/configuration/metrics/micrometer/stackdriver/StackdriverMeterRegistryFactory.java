@@ -15,9 +15,9 @@
  */
 package io.micronaut.configuration.metrics.micrometer.stackdriver;
 
-import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.stackdriver.StackdriverMeterRegistry;
 import io.micronaut.configuration.metrics.micrometer.ExportConfigurationProperties;
+import io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
 import jakarta.inject.Singleton;
@@ -52,7 +52,7 @@ public class StackdriverMeterRegistryFactory {
     @Singleton
     @Requires(property = MICRONAUT_METRICS_ENABLED, notEquals = FALSE)
     @Requires(property = STACKDRIVER_ENABLED, notEquals = FALSE)
-    @Requires(beans = CompositeMeterRegistry.class)
+    @Requires(beans = MeterRegistryFactory.class)
     StackdriverMeterRegistry stackdriverMeterRegistry(ExportConfigurationProperties exportConfigurationProperties) {
         Properties exportConfig = exportConfigurationProperties.getExport();
         return new StackdriverMeterRegistry(exportConfig::getProperty, SYSTEM);
@@ -10,6 +10,7 @@ import spock.lang.Unroll
 import java.time.Duration
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY
 import static io.micronaut.configuration.metrics.micrometer.stackdriver.StackdriverMeterRegistryFactory.STACKDRIVER_CONFIG
 import static io.micronaut.configuration.metrics.micrometer.stackdriver.StackdriverMeterRegistryFactory.STACKDRIVER_ENABLED
 
@@ -50,6 +51,21 @@ class StackdriverMeterRegistryFactorySpec extends Specification {
         context.stop()
     }
 
+    void "verify StackdriverMeterRegistry is the primary registry when a single registry is unwrapped"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([
+                (STACKDRIVER_CONFIG + ".projectId")       : MOCK_WAVEFRONT_PROJECTID,
+                (MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY): true,
+        ])
+
+        then:
+        context.getBean(MeterRegistry).is(context.getBean(StackdriverMeterRegistry))
+        !context.findBean(CompositeMeterRegistry).isPresent()
+
+        cleanup:
+        context.stop()
+    }
+
     @Unroll
     void "verify StackdriverMeterRegistry bean exists = #result when config #cfg = #setting"() {
         when:
@@ -15,9 +15,9 @@
  */
 package io.micronaut.configuration.metrics.micrometer.statsd;
 
-import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.micrometer.statsd.StatsdMeterRegistry;
 import io.micronaut.configuration.metrics.micrometer.ExportConfigurationProperties;
+import io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory;
 import io.micronaut.context.annotation.Factory;
 import io.micronaut.context.annotation.Requires;
 import jakarta.inject.Singleton;
@@ -47,7 +47,7 @@ public class StatsdMeterRegistryFactory {
      */
     @Singleton
     @Requires(property = MICRONAUT_METRICS_ENABLED, notEquals = FALSE)
-    @Requires(beans = CompositeMeterRegistry.class)
+    @Requires(beans = MeterRegistryFactory.class)
     StatsdMeterRegistry statsdMeterRegistry(ExportConfigurationProperties exportConfigurationProperties) {
         Properties exportConfig = exportConfigurationProperties.getExport();
         return new StatsdMeterRegistry(exportConfig::getProperty, SYSTEM);
@@ -11,6 +11,7 @@ import spock.lang.Unroll
 import java.time.Duration
 
 import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_ENABLED
+import static io.micronaut.configuration.metrics.micrometer.MeterRegistryFactory.MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY
 import static io.micronaut.configuration.metrics.micrometer.statsd.StatsdMeterRegistryFactory.STATSD_CONFIG
 import static io.micronaut.configuration.metrics.micrometer.statsd.StatsdMeterRegistryFactory.STATSD_ENABLED
 
@@ -43,6 +44,18 @@ class StatsdMeterRegistryFactorySpec extends Specification {
         context.stop()
     }
 
+    void "verify StatsdMeterRegistry is the primary registry when a single registry is unwrapped"() {
+        when:
+        ApplicationContext context = ApplicationContext.run([(MICRONAUT_METRICS_UNWRAP_SINGLE_REGISTRY): true])
+
+        then:
+        context.getBean(MeterRegistry).is(context.getBean(StatsdMeterRegistry))
+        !context.findBean(CompositeMeterRegistry).isPresent()
+
+        cleanup:
+        context.stop()
+    }
+
     @Unroll
     void "verify StatsdMeterRegistry bean exists = #result when config #cfg = #setting"() {
         when:
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2017-2024 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.micronaut.configuration.metrics.benchmark;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the record throughput of a registry wrapped in a composite, the default, with the same registry
+ * unwrapped with {@code micronaut.metrics.unwrap-single-registry}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class MeterRegistryBenchmark {
+
+    @Param({"composite", "unwrapped"})
+    public String registryType;
+
+    private MeterRegistry registry;
+    private Timer timer;
+    private Counter counter;
+
+    @Setup
+    public void setup() {
+        SimpleMeterRegistry backend = new SimpleMeterRegistry();
+        if ("composite".equals(registryType)) {
+            CompositeMeterRegistry composite = new CompositeMeterRegistry();
+            composite.add(backend);
+            registry = composite;
+        } else {
+            registry = backend;
+        }
+        timer = registry.timer("benchmark.timer", "uri", "/hello", "status", "200");
+        counter = registry.counter("benchmark.counter", "uri", "/hello");
+    }
+
+    /**
+     * Records into a timer held by the caller.
+     */
+    @Benchmark
+    public void recordTimer() {
+        timer.record(1_000, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Increments a counter held by the caller.
+     */
+    @Benchmark
+    public void incrementCounter() {
+        counter.increment();
+    }
+
+    /**
+     * Looks the timer up by name and tags, then records into it, like the web metrics do for each request.
+     */
+    @Benchmark
+    public void lookupAndRecordTimer() {
+        registry.timer("benchmark.timer", "uri", "/hello", "status", "200").record(1_000, TimeUnit.NANOSECONDS);
+    }
+}